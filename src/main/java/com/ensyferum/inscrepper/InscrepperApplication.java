@@ -1,18 +1,47 @@
 package com.ensyferum.inscrepper;
 
+import com.ensyferum.inscrepper.service.BackfillRunner;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Arrays;
 import java.util.Map;
 
 @SpringBootApplication
+@EnableScheduling
 public class InscrepperApplication {
     public static void main(String[] args) {
+        if (Arrays.asList(args).contains("--migrate-only")) {
+            System.exit(migrateOnly(args));
+        }
         SpringApplication.run(InscrepperApplication.class, args);
     }
 
+    // Migrations do Flyway (na subida do contexto) + backfills até o fim, sem servidor web nem scraping;
+    // para rodar antes do deploy e a aplicação subir sem nada pendente
+    static int migrateOnly(String[] args) {
+        // Execução única: o restart do devtools rodaria o main de novo em outra thread
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        // Como argumentos de linha de comando para valer sobre o application.properties
+        String[] overrides = {"--scraper.auto-scrape-enabled=false", "--scraper.driver-pool.min-size=0",
+                "--scraper.bloom.enabled=false", "--scraper.backfill.on-startup=false"};
+        String[] all = Arrays.copyOf(args, args.length + overrides.length);
+        System.arraycopy(overrides, 0, all, args.length, overrides.length);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(InscrepperApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(all);
+        boolean ok = context.getBean(BackfillRunner.class).runAll();
+        return SpringApplication.exit(context, () -> ok ? 0 : 1);
+    }
+
     @RestController
     static class HealthController {
         @GetMapping("/health")
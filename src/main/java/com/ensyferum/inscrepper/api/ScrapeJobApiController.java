@@ -0,0 +1,53 @@
+package com.ensyferum.inscrepper.api;
+
+import com.ensyferum.inscrepper.model.ScrapeJob;
+import com.ensyferum.inscrepper.service.ScrapeJobService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/scrape-jobs")
+public class ScrapeJobApiController {
+
+    private final ScrapeJobService scrapeJobService;
+
+    public ScrapeJobApiController(ScrapeJobService scrapeJobService) {
+        this.scrapeJobService = scrapeJobService;
+    }
+
+    public record CreateRequest(@NotNull UUID profileId, String type) {}
+
+    @PostMapping
+    public ResponseEntity<?> create(@Valid @RequestBody CreateRequest req) {
+        try {
+            ScrapeJob job = scrapeJobService.enqueue(req.profileId(), req.type());
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/scrape-jobs/" + job.getId()))
+                    .body(job);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        } catch (IllegalStateException ex) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ScrapeJob> get(@PathVariable UUID id) {
+        return scrapeJobService.findById(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping
+    public List<ScrapeJob> list(@RequestParam(required = false) UUID profileId) {
+        return scrapeJobService.listRecent(profileId);
+    }
+}
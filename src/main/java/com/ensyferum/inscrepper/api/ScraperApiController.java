@@ -0,0 +1,122 @@
+package com.ensyferum.inscrepper.api;
+
+import com.ensyferum.inscrepper.service.BackfillRunner;
+import com.ensyferum.inscrepper.service.ConditionalPageFetcher;
+import com.ensyferum.inscrepper.service.HttpFetcher;
+import com.ensyferum.inscrepper.service.KnownShortcodeIndex;
+import com.ensyferum.inscrepper.service.NetworkResponseCapture;
+import com.ensyferum.inscrepper.service.PageReadiness;
+import com.ensyferum.inscrepper.service.PolitenessPolicy;
+import com.ensyferum.inscrepper.service.ProfileScraperRegistry;
+import com.ensyferum.inscrepper.service.ResourceBlockingPolicy;
+import com.ensyferum.inscrepper.service.ScrapeExecutor;
+import com.ensyferum.inscrepper.service.ScraperMetrics;
+import com.ensyferum.inscrepper.service.WebDriverPool;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/scraper")
+public class ScraperApiController {
+
+    private final WebDriverPool driverPool;
+    private final ScrapeExecutor scrapeExecutor;
+    private final KnownShortcodeIndex knownShortcodes;
+    private final HttpFetcher httpFetcher;
+    private final ConditionalPageFetcher pageFetcher;
+    private final ProfileScraperRegistry scraperRegistry;
+    private final ResourceBlockingPolicy resourceBlocking;
+    private final NetworkResponseCapture networkCapture;
+    private final PageReadiness pageReadiness;
+    private final PolitenessPolicy politeness;
+    private final BackfillRunner backfillRunner;
+
+    public ScraperApiController(WebDriverPool driverPool, ScrapeExecutor scrapeExecutor,
+                                KnownShortcodeIndex knownShortcodes, HttpFetcher httpFetcher,
+                                ConditionalPageFetcher pageFetcher, ProfileScraperRegistry scraperRegistry,
+                                ResourceBlockingPolicy resourceBlocking, NetworkResponseCapture networkCapture,
+                                PageReadiness pageReadiness, PolitenessPolicy politeness,
+                                BackfillRunner backfillRunner) {
+        this.driverPool = driverPool;
+        this.scrapeExecutor = scrapeExecutor;
+        this.knownShortcodes = knownShortcodes;
+        this.httpFetcher = httpFetcher;
+        this.pageFetcher = pageFetcher;
+        this.scraperRegistry = scraperRegistry;
+        this.resourceBlocking = resourceBlocking;
+        this.networkCapture = networkCapture;
+        this.pageReadiness = pageReadiness;
+        this.politeness = politeness;
+        this.backfillRunner = backfillRunner;
+    }
+
+    @GetMapping("/pool")
+    public WebDriverPool.PoolStats pool() {
+        return driverPool.stats();
+    }
+
+    @GetMapping("/pool/blocking")
+    public ResourceBlockingPolicy.BlockingStats blocking() {
+        return resourceBlocking.stats();
+    }
+
+    @GetMapping("/pool/capture")
+    public NetworkResponseCapture.CaptureStats capture() {
+        return networkCapture.stats();
+    }
+
+    // Tempo gasto esperando a página (prontidão) separado do jitter deliberado (cortesia)
+    @GetMapping("/pool/waits")
+    public Map<String, Object> waits() {
+        return Map.of("readiness", pageReadiness.stats(), "politeness", politeness.stats());
+    }
+
+    @GetMapping("/executor")
+    public ScrapeExecutor.ExecutorStats executor() {
+        return scrapeExecutor.stats();
+    }
+
+    @GetMapping("/http")
+    public HttpFetcher.HttpStats http() {
+        return httpFetcher.stats();
+    }
+
+    @GetMapping("/http/cache")
+    public ConditionalPageFetcher.CacheStats httpCache() {
+        return pageFetcher.stats();
+    }
+
+    @GetMapping("/strategies")
+    public List<ScraperMetrics.StrategyStats> strategies() {
+        return scraperRegistry.stats();
+    }
+
+    @GetMapping("/bloom")
+    public KnownShortcodeIndex.BloomStats bloom() {
+        return knownShortcodes.stats();
+    }
+
+    @PostMapping("/bloom/rebuild")
+    public KnownShortcodeIndex.BloomStats rebuildBloom() {
+        return knownShortcodes.rebuild();
+    }
+
+    @PostMapping("/scrape-all")
+    public ResponseEntity<?> scrapeAll() {
+        ScrapeExecutor.BatchSubmission submission = scrapeExecutor.scrapeAllActive();
+        return ResponseEntity.accepted().body(Map.of(
+                "queued", submission.queued(),
+                "skipped", submission.skipped()));
+    }
+
+    @GetMapping("/backfills")
+    public List<BackfillRunner.Progress> backfills() {
+        return backfillRunner.status();
+    }
+}
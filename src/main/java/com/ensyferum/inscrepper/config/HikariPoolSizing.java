@@ -0,0 +1,51 @@
+package com.ensyferum.inscrepper.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+// Tamanho do pool de conexões a partir da concorrência real: cada worker de scraping e cada thread web
+// (open-in-view segura a conexão durante o request) pode ter uma conexão, mais as threads de fundo
+// (backfill, agendador). Pool menor que isso vira fila no getConnection; maior só ocupa o banco.
+// spring.datasource.hikari.maximum-pool-size explícito tem precedência.
+@Slf4j
+@Component
+public class HikariPoolSizing implements BeanPostProcessor {
+
+    private final int parallelWorkers;
+    private final int webThreads;
+    private final int backgroundConnections;
+    private final int maxPoolSize;
+    private final int explicitPoolSize;
+
+    public HikariPoolSizing(@Value("${scraper.parallel-workers:3}") int parallelWorkers,
+                            @Value("${server.tomcat.threads.max:200}") int webThreads,
+                            @Value("${scraper.datasource.background-connections:2}") int backgroundConnections,
+                            @Value("${scraper.datasource.max-pool-size:20}") int maxPoolSize,
+                            @Value("${spring.datasource.hikari.maximum-pool-size:0}") int explicitPoolSize) {
+        this.parallelWorkers = Math.max(1, parallelWorkers);
+        this.webThreads = Math.max(1, webThreads);
+        this.backgroundConnections = Math.max(0, backgroundConnections);
+        this.maxPoolSize = Math.max(1, maxPoolSize);
+        this.explicitPoolSize = explicitPoolSize;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        // O pool do Hikari só é criado na primeira conexão, então ainda dá para ajustar aqui
+        if (bean instanceof HikariDataSource dataSource && explicitPoolSize <= 0) {
+            int size = poolSize();
+            dataSource.setMaximumPoolSize(size);
+            dataSource.setMinimumIdle(Math.min(size, parallelWorkers + backgroundConnections));
+            log.info("🔌 Pool de conexões: {} ({} workers + {} threads web + {} de fundo, teto {})",
+                    size, parallelWorkers, webThreads, backgroundConnections, maxPoolSize);
+        }
+        return bean;
+    }
+
+    int poolSize() {
+        return Math.min(maxPoolSize, parallelWorkers + webThreads + backgroundConnections);
+    }
+}
@@ -12,14 +12,17 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+// Índices criados pelas migrations do Flyway (db/migration); aqui só como referência
 @Table(name = "contents", indexes = {
-        @Index(name = "idx_contents_profile", columnList = "profile_id"),
+        @Index(name = "idx_contents_profile_collected", columnList = "profile_id, collectedAt DESC, id DESC"),
+        @Index(name = "idx_contents_profile_published", columnList = "profile_id, publishedAt DESC"),
+        @Index(name = "idx_contents_profile_type", columnList = "profile_id, type"),
         @Index(name = "idx_contents_externalId", columnList = "externalId")
 })
 public class Content {
 
     @Id
-    @GeneratedValue
+    @TimeOrderedUuid
     private UUID id;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
@@ -47,19 +50,31 @@ public class Content {
 
     private Instant publishedAt;
 
+    // Contadores do momento da coleta (null quando o Instagram não os expõe)
+    private Long likeCount;
+
+    private Long commentCount;
+
     @Column(length = 500)
     private String thumbnailPath;
 
     @Column(length = 500)
     private String mediaPath;
 
-    @Lob
-    @Column(name = "image_blob", columnDefinition = "LONGBLOB")
-    private byte[] imageBlob;
+    // SHA-256 do arquivo no MediaStore (os bytes não ficam mais na linha)
+    @Column(length = 64)
+    private String imageHash;
+
+    private Long imageSize;
 
     @Column(length = 100)
     private String imageMimeType;
 
+    @Transient
+    public boolean hasImage() {
+        return imageHash != null;
+    }
+
     @PrePersist
     public void prePersist() {
         if (collectedAt == null) {
@@ -19,7 +19,7 @@ import java.util.UUID;
 public class Profile {
 
     @Id
-    @GeneratedValue
+    @TimeOrderedUuid
     private UUID id;
 
     @NotBlank
@@ -39,6 +39,16 @@ public class Profile {
     @Column(nullable = false)
     private Instant updatedAt;
 
+    // Último scraping concluído com sucesso (usado para priorizar perfis atrasados)
+    private Instant lastScrapedAt;
+
+    // Camada que funcionou na última coleta; a próxima começa por ela
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private ScrapeTier preferredTier;
+
+    private Instant preferredTierSince;
+
     @PrePersist
     public void prePersist() {
         Instant now = Instant.now();
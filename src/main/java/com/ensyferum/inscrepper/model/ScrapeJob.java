@@ -0,0 +1,60 @@
+package com.ensyferum.inscrepper.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "scrape_jobs", indexes = {
+        @Index(name = "idx_scrape_jobs_profile", columnList = "profileId"),
+        @Index(name = "idx_scrape_jobs_status", columnList = "status")
+})
+public class ScrapeJob {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    // Sem FK: o histórico de jobs não deve impedir a exclusão do perfil
+    @Column(nullable = false)
+    private UUID profileId;
+
+    @Column(length = 100)
+    private String username;
+
+    @Column(nullable = false, length = 30)
+    private String strategy;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private ScrapeJobStatus status = ScrapeJobStatus.QUEUED;
+
+    private Integer postsFound;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private Long durationMs;
+
+    @PrePersist
+    public void prePersist() {
+        if (createdAt == null) {
+            createdAt = Instant.now();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.ensyferum.inscrepper.model;
+
+public enum ScrapeJobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
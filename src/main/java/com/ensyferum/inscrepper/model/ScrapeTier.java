@@ -0,0 +1,7 @@
+package com.ensyferum.inscrepper.model;
+
+// Camadas de coleta, da mais barata para a mais cara
+public enum ScrapeTier {
+    HTTP,
+    BROWSER
+}
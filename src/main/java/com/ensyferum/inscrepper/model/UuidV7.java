@@ -0,0 +1,41 @@
+package com.ensyferum.inscrepper.model;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// UUID versão 7 (RFC 9562): 48 bits de epoch em ms + 12 bits de sequência + 62 bits aleatórios.
+// Ids gerados em sequência caem no fim do índice da PK (H2 e PostgreSQL comparam UUID byte a byte),
+// em vez de espalhados pela árvore como os UUIDs v4.
+public final class UuidV7 {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // (ms << 12) | sequência do último id: garante ordem estrita mesmo com vários ids no mesmo ms
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID next() {
+        return next(System.currentTimeMillis());
+    }
+
+    static UUID next(long epochMillis) {
+        long state = LAST.updateAndGet(last -> Math.max(epochMillis << 12, last + 1));
+        long millis = state >>> 12;
+        long sequence = state & 0xFFF;
+
+        long msb = (millis << 16) | 0x7000L | sequence;
+        long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    public static Instant timestampOf(UUID uuid) {
+        if (uuid.version() != 7) {
+            throw new IllegalArgumentException("UUID não é versão 7: " + uuid);
+        }
+        return Instant.ofEpochMilli(uuid.getMostSignificantBits() >>> 16);
+    }
+}
@@ -0,0 +1,25 @@
+package com.ensyferum.inscrepper.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+// Gerador do Hibernate para @TimeOrderedUuid; respeita id já atribuído (ex.: gravação em lote via JDBC)
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return currentValue != null ? currentValue : UuidV7.next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
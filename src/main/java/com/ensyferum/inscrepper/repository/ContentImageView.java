@@ -0,0 +1,11 @@
+package com.ensyferum.inscrepper.repository;
+
+import java.time.Instant;
+
+// Projeção mínima para servir a imagem sem carregar a entidade Content
+public interface ContentImageView {
+    String getImageHash();
+    String getImageMimeType();
+    Long getImageSize();
+    Instant getCollectedAt();
+}
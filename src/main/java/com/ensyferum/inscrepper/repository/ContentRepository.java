@@ -2,14 +2,78 @@ package com.ensyferum.inscrepper.repository;
 
 import com.ensyferum.inscrepper.model.Content;
 import com.ensyferum.inscrepper.model.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface ContentRepository extends JpaRepository<Content, UUID> {
+
+    String SUMMARY_SELECT = "select c.id as id, c.externalId as externalId, c.url as url, c.type as type, " +
+            "c.collectedAt as collectedAt, c.publishedAt as publishedAt, c.imageSize as imageSize, " +
+            "case when c.imageHash is not null then true else false end as hasImage from Content c ";
+
     List<Content> findByProfile(Profile profile);
     Optional<Content> findByExternalId(String externalId);
     boolean existsByExternalId(String externalId);
+
+    @Query("select c.externalId from Content c where c.externalId in :externalIds")
+    List<String> findExistingExternalIds(@Param("externalIds") Collection<String> externalIds);
+
+    // Varredura keyset pelo índice único de externalId (aquecimento do Bloom filter)
+    @Query("select c.externalId from Content c where c.externalId > :after order by c.externalId")
+    List<String> findExternalIdsAfter(@Param("after") String after, Limit limit);
+
+    long countByProfile(Profile profile);
+
+    @Query("select count(c) as total, " +
+           "coalesce(sum(case when c.imageHash is not null then 1 else 0 end), 0) as withImage, " +
+           "coalesce(sum(case when c.caption is not null and length(trim(c.caption)) > 0 then 1 else 0 end), 0) as withCaption " +
+           "from Content c where c.profile = :profile")
+    ContentStats aggregateByProfile(@Param("profile") Profile profile);
+
+    @Query("select c.type as type, count(c) as total from Content c " +
+           "where c.profile = :profile group by c.type order by count(c) desc")
+    List<ContentTypeCount> countByTypeForProfile(@Param("profile") Profile profile);
+
+    // Dia em UTC pelos segundos desde a época: não depende do fuso da sessão do banco nem da JVM
+    // (cast(... as LocalDate) converteria pelo fuso da sessão)
+    String COLLECTED_DAY = "cast(floor(extract(epoch from c.collectedAt) / 86400) as Long)";
+    String PUBLISHED_DAY = "cast(floor(extract(epoch from c.publishedAt) / 86400) as Long)";
+
+    @Query("select " + COLLECTED_DAY + " as epochDay, count(c) as total from Content c " +
+           "where c.profile = :profile and c.collectedAt >= :since " +
+           "group by " + COLLECTED_DAY + " order by " + COLLECTED_DAY)
+    List<DailyCount> countCollectedPerDay(@Param("profile") Profile profile, @Param("since") Instant since);
+
+    @Query("select " + PUBLISHED_DAY + " as epochDay, count(c) as total from Content c " +
+           "where c.profile = :profile and c.publishedAt >= :since " +
+           "group by " + PUBLISHED_DAY + " order by " + PUBLISHED_DAY)
+    List<DailyCount> countPublishedPerDay(@Param("profile") Profile profile, @Param("since") Instant since);
+
+    @Query(value = SUMMARY_SELECT + "where c.profile = :profile",
+           countQuery = "select count(c) from Content c where c.profile = :profile")
+    Page<ContentSummary> findSummariesByProfile(@Param("profile") Profile profile, Pageable pageable);
+
+    // Paginação keyset: (collectedAt, id) do último item da página anterior.
+    // profile.id na ordenação não muda o resultado (é fixo no where), mas deixa o H2 ler o índice já ordenado
+    @Query(SUMMARY_SELECT + "where c.profile = :profile " +
+           "and (c.collectedAt < :afterAt or (c.collectedAt = :afterAt and c.id < :afterId)) " +
+           "order by c.profile.id, c.collectedAt desc, c.id desc")
+    List<ContentSummary> findSummariesAfter(@Param("profile") Profile profile,
+                                            @Param("afterAt") Instant afterAt,
+                                            @Param("afterId") UUID afterId,
+                                            Limit limit);
+
+    @Query("select c.imageHash as imageHash, c.imageMimeType as imageMimeType, " +
+           "c.imageSize as imageSize, c.collectedAt as collectedAt from Content c where c.id = :id")
+    Optional<ContentImageView> findImageById(@Param("id") UUID id);
 }
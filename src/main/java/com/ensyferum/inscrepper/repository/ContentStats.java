@@ -0,0 +1,8 @@
+package com.ensyferum.inscrepper.repository;
+
+// Agregados de um perfil calculados em uma única query no banco
+public interface ContentStats {
+    Long getTotal();
+    Long getWithImage();
+    Long getWithCaption();
+}
@@ -0,0 +1,18 @@
+package com.ensyferum.inscrepper.repository;
+
+import com.ensyferum.inscrepper.model.ContentType;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Projeção para listagens: nunca lê caption nem a mídia
+public interface ContentSummary {
+    UUID getId();
+    String getExternalId();
+    String getUrl();
+    ContentType getType();
+    Instant getCollectedAt();
+    Instant getPublishedAt();
+    Long getImageSize();
+    Boolean getHasImage();
+}
@@ -0,0 +1,8 @@
+package com.ensyferum.inscrepper.repository;
+
+import com.ensyferum.inscrepper.model.ContentType;
+
+public interface ContentTypeCount {
+    ContentType getType();
+    Long getTotal();
+}
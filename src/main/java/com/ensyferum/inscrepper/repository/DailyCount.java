@@ -0,0 +1,13 @@
+package com.ensyferum.inscrepper.repository;
+
+import java.time.LocalDate;
+
+// Um ponto da série diária (dia em UTC, como dias desde 1970-01-01)
+public interface DailyCount {
+    Long getEpochDay();
+    Long getTotal();
+
+    default LocalDate getDay() {
+        return getEpochDay() == null ? null : LocalDate.ofEpochDay(getEpochDay());
+    }
+}
@@ -1,8 +1,15 @@
 package com.ensyferum.inscrepper.repository;
 
 import com.ensyferum.inscrepper.model.Profile;
+import com.ensyferum.inscrepper.model.ScrapeTier;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -10,4 +17,18 @@ public interface ProfileRepository extends JpaRepository<Profile, UUID> {
     Optional<Profile> findByUsername(String username);
     Optional<Profile> findByUsernameIgnoreCase(String username);
     boolean existsByUsernameIgnoreCase(String username);
+    List<Profile> findByActiveTrue();
+
+    @Query("select p from Profile p where p.active = true order by p.lastScrapedAt asc nulls first")
+    List<Profile> findActiveOrderByStaleness();
+
+    @Transactional
+    @Modifying
+    @Query("update Profile p set p.lastScrapedAt = :scrapedAt where p.id = :id")
+    int markScraped(@Param("id") UUID id, @Param("scrapedAt") Instant scrapedAt);
+
+    @Transactional
+    @Modifying
+    @Query("update Profile p set p.preferredTier = :tier, p.preferredTierSince = :since where p.id = :id")
+    int updatePreferredTier(@Param("id") UUID id, @Param("tier") ScrapeTier tier, @Param("since") Instant since);
 }
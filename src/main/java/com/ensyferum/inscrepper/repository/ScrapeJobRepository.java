@@ -0,0 +1,17 @@
+package com.ensyferum.inscrepper.repository;
+
+import com.ensyferum.inscrepper.model.ScrapeJob;
+import com.ensyferum.inscrepper.model.ScrapeJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ScrapeJobRepository extends JpaRepository<ScrapeJob, UUID> {
+    List<ScrapeJob> findTop20ByProfileIdOrderByCreatedAtDesc(UUID profileId);
+    List<ScrapeJob> findTop50ByOrderByCreatedAtDesc();
+    Optional<ScrapeJob> findFirstByProfileIdOrderByCreatedAtDesc(UUID profileId);
+    List<ScrapeJob> findByStatusIn(Collection<ScrapeJobStatus> statuses);
+}
@@ -0,0 +1,21 @@
+package com.ensyferum.inscrepper.service;
+
+// Movimentação de dados em lotes pequenos (extração de blobs, colunas derivadas novas...), executada
+// pelo BackfillRunner fora das migrations do Flyway: cada lote é uma transação curta e o progresso
+// fica em backfill_progress, então um restart retoma de onde parou em vez de travar a subida
+public interface Backfill {
+
+    // Chave em backfill_progress; não mudar depois de publicado
+    String name();
+
+    // false quando não há nada a fazer neste banco (ex.: coluna legada inexistente)
+    default boolean pending() {
+        return true;
+    }
+
+    // Processa até chunkSize linhas a partir do cursor salvo (null na primeira vez)
+    Chunk runChunk(String cursor, int chunkSize) throws Exception;
+
+    // rows: linhas tratadas neste lote; cursor: onde o próximo lote começa; done: acabou
+    record Chunk(int rows, String cursor, boolean done) {}
+}
@@ -0,0 +1,184 @@
+package com.ensyferum.inscrepper.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// Executa os Backfill registrados em lotes, cada um na sua transação, com o progresso em backfill_progress.
+// Na subida roda numa thread à parte (a aplicação não espera); no modo --migrate-only roda até o fim.
+@Slf4j
+@Service
+public class BackfillRunner {
+
+    public enum Status { PENDING, RUNNING, DONE, FAILED }
+
+    private final List<Backfill> backfills;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean onStartup;
+    private final int chunkSize;
+    private final Duration pause;
+
+    private volatile boolean stopping;
+
+    public BackfillRunner(List<Backfill> backfills, JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${scraper.backfill.on-startup:true}") boolean onStartup,
+                          @Value("${scraper.backfill.chunk-size:200}") int chunkSize,
+                          @Value("${scraper.backfill.pause:PT0.1S}") Duration pause) {
+        this.backfills = backfills;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.onStartup = onStartup;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.pause = pause;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void runOnStartup() {
+        if (!onStartup || backfills.isEmpty()) {
+            return;
+        }
+        Thread thread = new Thread(this::runAll, "backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Devolve false se algum backfill falhou (o modo --migrate-only vira exit code != 0)
+    public synchronized boolean runAll() {
+        boolean ok = true;
+        for (Backfill backfill : backfills) {
+            if (stopping) {
+                break;
+            }
+            ok &= run(backfill);
+        }
+        return ok;
+    }
+
+    public void stop() {
+        stopping = true;
+    }
+
+    boolean run(Backfill backfill) {
+        String name = backfill.name();
+        try {
+            if (!backfill.pending()) {
+                return true;
+            }
+            Progress progress = loadOrCreate(name);
+            if (progress.status() == Status.DONE) {
+                return true;
+            }
+            jdbcTemplate.update("update backfill_progress set status = ?, last_error = null, " +
+                            "started_at = coalesce(started_at, ?), updated_at = ? where name = ?",
+                    Status.RUNNING.name(), now(), now(), name);
+            log.info("🧱 Backfill {} retomando ({} linhas já feitas)", name, progress.rowsDone());
+
+            String cursor = progress.cursor();
+            long rows = progress.rowsDone();
+            while (!stopping) {
+                Backfill.Chunk chunk = runChunk(backfill, cursor);
+                cursor = chunk.cursor();
+                rows += chunk.rows();
+                if (chunk.done()) {
+                    jdbcTemplate.update("update backfill_progress set status = ?, finished_at = ?, updated_at = ? " +
+                            "where name = ?", Status.DONE.name(), now(), now(), name);
+                    log.info("✅ Backfill {} concluído: {} linhas", name, rows);
+                    return true;
+                }
+                sleep(pause);
+            }
+            // Parada no meio: fica PENDING com o cursor salvo para a próxima execução
+            jdbcTemplate.update("update backfill_progress set status = ?, updated_at = ? where name = ?",
+                    Status.PENDING.name(), now(), name);
+            return true;
+        } catch (Exception e) {
+            log.error("❌ Backfill {} falhou: {}", name, e.getMessage(), e);
+            String message = String.valueOf(e.getMessage());
+            jdbcTemplate.update("update backfill_progress set status = ?, last_error = ?, updated_at = ? where name = ?",
+                    Status.FAILED.name(), message.substring(0, Math.min(message.length(), 1000)), now(), name);
+            return false;
+        }
+    }
+
+    // Lote e avanço do progresso na mesma transação: ou os dois entram, ou nenhum
+    private Backfill.Chunk runChunk(Backfill backfill, String cursor) {
+        return transactionTemplate.execute(status -> {
+            Backfill.Chunk chunk;
+            try {
+                chunk = backfill.runChunk(cursor, chunkSize);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+            jdbcTemplate.update("update backfill_progress set rows_done = rows_done + ?, chunks = chunks + 1, " +
+                    "cursor_value = ?, updated_at = ? where name = ?", chunk.rows(), chunk.cursor(), now(), backfill.name());
+            return chunk;
+        });
+    }
+
+    private Progress loadOrCreate(String name) {
+        List<Progress> found = find(name);
+        if (found.isEmpty()) {
+            jdbcTemplate.update("insert into backfill_progress (name, status, rows_done, chunks, updated_at) " +
+                    "values (?, ?, 0, 0, ?)", name, Status.PENDING.name(), now());
+            found = find(name);
+        }
+        return found.get(0);
+    }
+
+    private List<Progress> find(String name) {
+        return jdbcTemplate.query("select name, status, rows_done, chunks, cursor_value, started_at, finished_at, " +
+                "last_error from backfill_progress where name = ?", (rs, i) -> new Progress(
+                rs.getString("name"),
+                Status.valueOf(rs.getString("status")),
+                rs.getLong("rows_done"),
+                rs.getLong("chunks"),
+                rs.getString("cursor_value"),
+                instant(rs.getTimestamp("started_at")),
+                instant(rs.getTimestamp("finished_at")),
+                rs.getString("last_error")), name);
+    }
+
+    public List<Progress> status() {
+        return backfills.stream()
+                .map(backfill -> find(backfill.name()).stream().findFirst()
+                        .orElse(new Progress(backfill.name(), Status.PENDING, 0, 0, null, null, null, null)))
+                .toList();
+    }
+
+    private static Timestamp now() {
+        return Timestamp.from(Instant.now());
+    }
+
+    private static Instant instant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+
+    private void sleep(Duration duration) {
+        if (duration.isZero() || duration.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopping = true;
+        }
+    }
+
+    public record Progress(String name, Status status, long rowsDone, long chunks, String cursor,
+                           Instant startedAt, Instant finishedAt, String lastError) {}
+}
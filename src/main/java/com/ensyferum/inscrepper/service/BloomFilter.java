@@ -0,0 +1,135 @@
+package com.ensyferum.inscrepper.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bloom filter de strings sobre um bitset de longs; seguro para put/mightContain concorrentes
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashFunctions;
+    private final long expectedInsertions;
+    private final double targetFpp;
+    private final AtomicLong insertions = new AtomicLong();
+
+    public BloomFilter(long expectedInsertions, double targetFpp) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions deve ser positivo");
+        }
+        if (targetFpp <= 0 || targetFpp >= 1) {
+            throw new IllegalArgumentException("targetFpp deve estar entre 0 e 1");
+        }
+        this.expectedInsertions = expectedInsertions;
+        this.targetFpp = targetFpp;
+
+        // m = -n ln p / (ln 2)^2 e k = m/n ln 2 (dimensionamento ótimo)
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(targetFpp) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * 64;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    public boolean put(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        boolean changed = false;
+        for (int i = 1; i <= hashFunctions; i++) {
+            // Double hashing (Kirsch-Mitzenmacher): k índices a partir de dois hashes
+            long combined = (h1 + (long) i * h2) & Long.MAX_VALUE;
+            changed |= setBit(combined % bitCount);
+        }
+        if (changed) {
+            insertions.incrementAndGet();
+        }
+        return changed;
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        for (int i = 1; i <= hashFunctions; i++) {
+            long combined = (h1 + (long) i * h2) & Long.MAX_VALUE;
+            if (!getBit(combined % bitCount)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    public long expectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public double targetFpp() {
+        return targetFpp;
+    }
+
+    public long insertions() {
+        return insertions.get();
+    }
+
+    public long memoryBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    public double fillRatio() {
+        long set = 0;
+        for (int i = 0; i < words.length(); i++) {
+            set += Long.bitCount(words.get(i));
+        }
+        return (double) set / bitCount;
+    }
+
+    // Taxa de falso positivo atual estimada pela fração de bits ligados: (bits ligados / m)^k
+    public double estimatedFpp() {
+        return Math.pow(fillRatio(), hashFunctions);
+    }
+
+    private boolean setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        while (true) {
+            long current = words.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+            if (words.compareAndSet(word, current, current | mask)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean getBit(long index) {
+        return (words.get((int) (index >>> 6)) & (1L << index)) != 0;
+    }
+
+    // FNV-1a 64 bits seguido do finalizador do MurmurHash3 para espalhar bem os bits altos
+    static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
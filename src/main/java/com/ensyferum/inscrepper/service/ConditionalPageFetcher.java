@@ -0,0 +1,165 @@
+package com.ensyferum.inscrepper.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// GET condicional sobre o HttpFetcher: guarda ETag/Last-Modified/hash do corpo por URL e
+// avisa quando a página não mudou desde a última coleta
+@Slf4j
+@Component
+public class ConditionalPageFetcher {
+
+    public enum Outcome {
+        CHANGED,        // corpo novo (ou primeira coleta)
+        NOT_MODIFIED,   // servidor respondeu 304
+        SAME_CONTENT,   // 200, mas o hash do corpo é igual ao anterior
+        FAILED
+    }
+
+    public record PageResult(Outcome outcome, int httpStatus, String body) {
+        public boolean unchanged() {
+            return outcome == Outcome.NOT_MODIFIED || outcome == Outcome.SAME_CONTENT;
+        }
+    }
+
+    record CacheEntry(String etag, String lastModified, String bodyHash, Instant storedAt) {}
+
+    private final HttpFetcher httpFetcher;
+    private final int maxEntries;
+    private final Duration maxAge;
+    private final Clock clock;
+    private final Map<String, CacheEntry> entries;
+
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong sameContent = new AtomicLong();
+    private final AtomicLong changed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    @Autowired
+    public ConditionalPageFetcher(HttpFetcher httpFetcher,
+                                  @Value("${scraper.http.cache.max-entries:2000}") int maxEntries,
+                                  @Value("${scraper.http.cache.max-age:PT24H}") Duration maxAge) {
+        this(httpFetcher, maxEntries, maxAge, Clock.systemUTC());
+    }
+
+    ConditionalPageFetcher(HttpFetcher httpFetcher, int maxEntries, Duration maxAge, Clock clock) {
+        this.httpFetcher = httpFetcher;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxAge = maxAge;
+        this.clock = clock;
+        // LRU limitado: a entrada menos acessada sai quando passa de maxEntries
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                return size() > ConditionalPageFetcher.this.maxEntries;
+            }
+        };
+    }
+
+    public PageResult fetch(String url, Map<String, String> headers) {
+        CacheEntry cached = lookup(url);
+
+        Map<String, String> requestHeaders = new HashMap<>(headers);
+        if (cached != null) {
+            if (cached.etag() != null) {
+                requestHeaders.put("If-None-Match", cached.etag());
+            }
+            if (cached.lastModified() != null) {
+                requestHeaders.put("If-Modified-Since", cached.lastModified());
+            }
+        }
+
+        try {
+            return httpFetcher.get(url, requestHeaders, (status, responseHeaders, body) -> {
+                if (status == 304 && cached != null) {
+                    notModified.incrementAndGet();
+                    store(url, new CacheEntry(cached.etag(), cached.lastModified(), cached.bodyHash(), clock.instant()));
+                    return new PageResult(Outcome.NOT_MODIFIED, status, null);
+                }
+                if (status != 200) {
+                    failed.incrementAndGet();
+                    return new PageResult(Outcome.FAILED, status, null);
+                }
+
+                // Hash calculado enquanto o corpo é lido, sem segunda passada
+                MessageDigest digest = sha256();
+                String text = HttpFetcher.readText(new DigestInputStream(body, digest), responseHeaders);
+                String hash = HexFormat.of().formatHex(digest.digest());
+
+                store(url, new CacheEntry(
+                        responseHeaders.firstValue("ETag").orElse(null),
+                        responseHeaders.firstValue("Last-Modified").orElse(null),
+                        hash, clock.instant()));
+
+                if (cached != null && hash.equals(cached.bodyHash())) {
+                    sameContent.incrementAndGet();
+                    return new PageResult(Outcome.SAME_CONTENT, status, text);
+                }
+                changed.incrementAndGet();
+                return new PageResult(Outcome.CHANGED, status, text);
+            });
+        } catch (IOException e) {
+            failed.incrementAndGet();
+            log.warn("⚠️ Falha ao buscar {}: {}", url, e.getMessage());
+            return new PageResult(Outcome.FAILED, -1, null);
+        }
+    }
+
+    public void invalidate(String url) {
+        synchronized (entries) {
+            entries.remove(url);
+        }
+    }
+
+    // Entradas antigas deixam de mandar validadores, forçando uma releitura completa de tempos em tempos
+    private CacheEntry lookup(String url) {
+        synchronized (entries) {
+            CacheEntry entry = entries.get(url);
+            if (entry != null && entry.storedAt().plus(maxAge).isBefore(clock.instant())) {
+                entries.remove(url);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    private void store(String url, CacheEntry entry) {
+        synchronized (entries) {
+            entries.put(url, entry);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public CacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(size, maxEntries, maxAge, changed.get(), notModified.get(), sameContent.get(), failed.get());
+    }
+
+    public record CacheStats(int entries, int maxEntries, Duration maxAge, long changed,
+                             long notModified, long sameContent, long failed) {}
+}
@@ -0,0 +1,98 @@
+package com.ensyferum.inscrepper.service;
+
+import com.ensyferum.inscrepper.model.ContentType;
+import com.ensyferum.inscrepper.model.Profile;
+import com.ensyferum.inscrepper.repository.ContentRepository;
+import com.ensyferum.inscrepper.repository.ContentStats;
+import com.ensyferum.inscrepper.repository.ContentTypeCount;
+import com.ensyferum.inscrepper.repository.DailyCount;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContentAnalyticsService {
+
+    private static final int MIN_DAYS = 7;
+    private static final int MAX_DAYS = 365;
+
+    private final ContentRepository contentRepository;
+    private final Clock clock = Clock.systemUTC();
+
+    // Tudo é agregado no banco: nenhuma linha de Content passa pela JVM
+    public ProfileAnalytics analyze(Profile profile, int days) {
+        int window = Math.max(MIN_DAYS, Math.min(days, MAX_DAYS));
+        LocalDate to = LocalDate.now(clock);
+        LocalDate from = to.minusDays(window - 1L);
+        Instant since = from.atStartOfDay(ZoneOffset.UTC).toInstant();
+
+        ContentStats stats = contentRepository.aggregateByProfile(profile);
+
+        Map<ContentType, Long> byType = new LinkedHashMap<>();
+        for (ContentTypeCount row : contentRepository.countByTypeForProfile(profile)) {
+            byType.put(row.getType(), row.getTotal());
+        }
+
+        List<Long> collected = fillDays(contentRepository.countCollectedPerDay(profile, since), from, to);
+        List<Long> published = fillDays(contentRepository.countPublishedPerDay(profile, since), from, to);
+
+        List<LocalDate> labels = new ArrayList<>(window);
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            labels.add(day);
+        }
+
+        long publishedInWindow = published.stream().mapToLong(Long::longValue).sum();
+        double postsPerWeek = publishedInWindow * 7.0 / window;
+
+        return new ProfileAnalytics(
+                nullToZero(stats.getTotal()),
+                nullToZero(stats.getWithImage()),
+                nullToZero(stats.getWithCaption()),
+                byType, window, labels, collected, published, postsPerWeek);
+    }
+
+    // Os GROUP BY só retornam dias com posts; completa os buracos com zero para o gráfico
+    static List<Long> fillDays(List<DailyCount> rows, LocalDate from, LocalDate to) {
+        Map<LocalDate, Long> counts = new HashMap<>();
+        for (DailyCount row : rows) {
+            if (row.getDay() != null) {
+                counts.merge(row.getDay(), nullToZero(row.getTotal()), Long::sum);
+            }
+        }
+
+        List<Long> series = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            series.add(counts.getOrDefault(day, 0L));
+        }
+        return series;
+    }
+
+    private static long nullToZero(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    public record ProfileAnalytics(long totalPosts, long postsWithImages, long postsWithCaption,
+                                   Map<ContentType, Long> byType, int days, List<LocalDate> labels,
+                                   List<Long> collectedPerDay, List<Long> publishedPerDay, double postsPerWeek) {
+
+        public double imagePercentage() {
+            return totalPosts > 0 ? (double) postsWithImages / totalPosts * 100 : 0;
+        }
+
+        public double captionPercentage() {
+            return totalPosts > 0 ? (double) postsWithCaption / totalPosts * 100 : 0;
+        }
+    }
+}
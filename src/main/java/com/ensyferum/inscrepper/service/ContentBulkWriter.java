@@ -0,0 +1,275 @@
+package com.ensyferum.inscrepper.service;
+
+import com.ensyferum.inscrepper.model.Content;
+import com.ensyferum.inscrepper.model.UuidV7;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+// Gravação em lote dos posts direto via JDBC: um round-trip por lote em vez de um INSERT por linha,
+// e conflito no externalId (scrapes paralelos do mesmo perfil) vira "ignorar" em vez de exceção.
+// PostgreSQL: reserva em content_keys (ON CONFLICT DO NOTHING RETURNING) + INSERT multi-linha; H2: MERGE em batch JDBC.
+@Slf4j
+@Component
+public class ContentBulkWriter {
+
+    private static final String COLUMNS = "id, profile_id, external_id, url, media_url, caption, type, " +
+            "collected_at, published_at, like_count, comment_count, thumbnail_path, media_path, " +
+            "image_hash, image_size, image_mime_type";
+    private static final int COLUMN_COUNT = 16;
+
+    enum Dialect { POSTGRES, H2, GENERIC }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Dialect dialect;
+
+    public ContentBulkWriter(JdbcTemplate jdbcTemplate,
+                             @Value("${scraper.content.write-batch-size:200}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        // 16 parâmetros por linha: 200 linhas ficam bem abaixo do limite de 32767 do PostgreSQL
+        this.batchSize = Math.max(1, Math.min(batchSize, 32767 / COLUMN_COUNT));
+    }
+
+    // Devolve só os posts efetivamente inseridos (com id preenchido); os que já existiam são ignorados
+    @Transactional
+    public List<Content> insertIgnoringExisting(List<Content> contents) {
+        if (contents.isEmpty()) {
+            return contents;
+        }
+        // O perfil (e o que mais estiver pendente na sessão JPA) precisa estar no banco antes do JDBC
+        if (entityManager != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+            entityManager.flush();
+        }
+
+        // Ordenado por externalId: escritores concorrentes travam as entradas do índice na mesma ordem
+        Map<String, Content> unique = new LinkedHashMap<>();
+        for (Content content : contents) {
+            content.prePersist();
+            if (content.getId() == null) {
+                content.setId(UuidV7.next());
+            }
+            unique.putIfAbsent(content.getExternalId(), content);
+        }
+        List<Content> rows = new ArrayList<>(unique.values());
+        rows.sort(Comparator.comparing(Content::getExternalId));
+
+        long start = System.nanoTime();
+        Set<String> inserted = new HashSet<>();
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<Content> chunk = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            inserted.addAll(switch (dialect()) {
+                case POSTGRES -> insertPostgres(chunk);
+                case H2 -> mergeH2(chunk);
+                case GENERIC -> insertWhereNotExists(chunk);
+            });
+        }
+
+        List<Content> saved = new ArrayList<>();
+        for (Content content : contents) {
+            if (inserted.remove(content.getExternalId())) {
+                saved.add(content);
+            } else {
+                // Já existia (ou repetido no próprio lote): não é a linha do banco, então sem id
+                content.setId(null);
+            }
+        }
+        log.debug("💾 Gravação em lote: {} posts, {} inseridos, {} ignorados em {} ms",
+                contents.size(), saved.size(), contents.size() - saved.size(), (System.nanoTime() - start) / 1_000_000);
+        return saved;
+    }
+
+    // contents é particionada por mês e não tem UNIQUE no externalId: a unicidade está em content_keys.
+    // Reserva as chaves do lote (quem perder a corrida fica de fora) e insere só as reservadas.
+    private List<String> insertPostgres(List<Content> chunk) {
+        List<Object> keys = new ArrayList<>(chunk.size() * 3);
+        for (Content content : chunk) {
+            keys.addAll(Arrays.asList(content.getExternalId(), content.getId(), timestamp(content.getCollectedAt())));
+        }
+        String reserve = "insert into content_keys (external_id, content_id, collected_at) values " +
+                rows(chunk.size(), 3) + " on conflict (external_id) do nothing returning external_id";
+        RowMapper<String> externalId = (rs, i) -> rs.getString(1);
+        Set<String> reserved = new HashSet<>(jdbcTemplate.query(reserve, externalId, keys.toArray()));
+
+        List<Content> toInsert = chunk.stream().filter(content -> reserved.contains(content.getExternalId())).toList();
+        if (toInsert.isEmpty()) {
+            return List.of();
+        }
+        jdbcTemplate.update("insert into contents (" + COLUMNS + ") values " + rows(toInsert.size(), COLUMN_COUNT),
+                rowArgs(toInsert).toArray());
+        return toInsert.stream().map(Content::getExternalId).toList();
+    }
+
+    private List<String> mergeH2(List<Content> chunk) {
+        String sql = "merge into contents t using (values " + placeholders() + ") " +
+                "s(" + COLUMNS + ") on t.external_id = s.external_id " +
+                "when not matched then insert (" + COLUMNS + ") values (" + prefixed("s.") + ")";
+        return batch(sql, chunk, false);
+    }
+
+    private List<String> insertWhereNotExists(List<Content> chunk) {
+        String sql = "insert into contents (" + COLUMNS + ") select " + placeholders().replaceAll("[()]", "") +
+                " from (select 1 as one) x where not exists (select 1 from contents where external_id = ?)";
+        return batch(sql, chunk, true);
+    }
+
+    // Batch JDBC: o update count de cada linha diz se ela entrou (1) ou já existia (0)
+    private List<String> batch(String sql, List<Content> chunk, boolean externalIdAgain) {
+        int[] counts = jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                for (Content content : chunk) {
+                    Object[] values = values(content);
+                    for (int i = 0; i < values.length; i++) {
+                        ps.setObject(i + 1, values[i]);
+                    }
+                    if (externalIdAgain) {
+                        ps.setObject(values.length + 1, content.getExternalId());
+                    }
+                    ps.addBatch();
+                }
+                return ps.executeBatch();
+            }
+        });
+
+        List<String> inserted = new ArrayList<>();
+        List<String> unknown = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            String externalId = chunk.get(i).getExternalId();
+            int count = counts == null || i >= counts.length ? Statement.SUCCESS_NO_INFO : counts[i];
+            if (count > 0) {
+                inserted.add(externalId);
+            } else if (count == Statement.SUCCESS_NO_INFO) {
+                unknown.add(externalId);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            inserted.addAll(confirmOwnRows(chunk, unknown));
+        }
+        return inserted;
+    }
+
+    // Driver sem contagem por linha: entrou quem está no banco com o id que este lote gerou
+    private List<String> confirmOwnRows(List<Content> chunk, List<String> externalIds) {
+        Map<String, UUID> ours = new LinkedHashMap<>();
+        for (Content content : chunk) {
+            ours.put(content.getExternalId(), content.getId());
+        }
+        String in = String.join(", ", Collections.nCopies(externalIds.size(), "?"));
+        List<String> confirmed = new ArrayList<>();
+        jdbcTemplate.query("select external_id, id from contents where external_id in (" + in + ")", rs -> {
+            String externalId = rs.getString(1);
+            if (ours.get(externalId).equals(rs.getObject(2, UUID.class))) {
+                confirmed.add(externalId);
+            }
+        }, externalIds.toArray());
+        return confirmed;
+    }
+
+    // Parâmetros do INSERT multi-linha, linha a linha; colunas opcionais vão como null
+    static List<Object> rowArgs(List<Content> rows) {
+        List<Object> args = new ArrayList<>(rows.size() * COLUMN_COUNT);
+        for (Content content : rows) {
+            args.addAll(Arrays.asList(values(content)));
+        }
+        return args;
+    }
+
+    private static Object[] values(Content content) {
+        return new Object[] {
+                content.getId(),
+                content.getProfile().getId(),
+                content.getExternalId(),
+                content.getUrl(),
+                content.getMediaUrl(),
+                content.getCaption(),
+                content.getType().name(),
+                timestamp(content.getCollectedAt()),
+                timestamp(content.getPublishedAt()),
+                content.getLikeCount(),
+                content.getCommentCount(),
+                content.getThumbnailPath(),
+                content.getMediaPath(),
+                content.getImageHash(),
+                content.getImageSize(),
+                content.getImageMimeType()
+        };
+    }
+
+    private static OffsetDateTime timestamp(Instant instant) {
+        return instant == null ? null : instant.atOffset(ZoneOffset.UTC);
+    }
+
+    private static String placeholders() {
+        return placeholders(COLUMN_COUNT);
+    }
+
+    private static String placeholders(int count) {
+        return "(" + String.join(", ", Collections.nCopies(count, "?")) + ")";
+    }
+
+    private static String rows(int rows, int columns) {
+        return String.join(", ", Collections.nCopies(rows, placeholders(columns)));
+    }
+
+    private static String prefixed(String prefix) {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (String column : COLUMNS.split(",\\s*")) {
+            joiner.add(prefix + column);
+        }
+        return joiner.toString();
+    }
+
+    Dialect dialect() {
+        if (dialect == null) {
+            dialect = detectDialect();
+        }
+        return dialect;
+    }
+
+    private Dialect detectDialect() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                    metaData -> metaData.getDatabaseProductName());
+            log.info("💾 Gravação em lote de posts para {}", product);
+            if (product == null) {
+                return Dialect.GENERIC;
+            }
+            if (product.toLowerCase().contains("postgres")) {
+                return Dialect.POSTGRES;
+            }
+            return product.toLowerCase().contains("h2") ? Dialect.H2 : Dialect.GENERIC;
+        } catch (Exception e) {
+            log.warn("⚠️ Não foi possível identificar o banco ({}); usando SQL genérico", e.getMessage());
+            return Dialect.GENERIC;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.ensyferum.inscrepper.service;
+
+import com.ensyferum.inscrepper.model.Content;
+import com.ensyferum.inscrepper.repository.ContentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContentDedupService {
+
+    private final ContentRepository contentRepository;
+    private final KnownShortcodeIndex knownShortcodes;
+    private final ContentBulkWriter bulkWriter;
+
+    // Limita o tamanho do IN (...) para não estourar limites de parâmetros do driver
+    @Value("${scraper.dedup.chunk-size:500}")
+    private int chunkSize = 500;
+
+    // true: positivo do Bloom filter conta como existente sem confirmar no banco
+    // (perde ~fpp dos posts novos em troca de zero queries)
+    @Value("${scraper.bloom.trust-positives:false}")
+    private boolean trustBloomPositives = false;
+
+    // false: volta ao saveAll do JPA (um INSERT por linha, exceção em conflito de externalId)
+    @Value("${scraper.content.bulk-write:true}")
+    private boolean bulkWrite = true;
+
+    // Resolve em lote quais externalIds já estão no banco: uma query por chunk, não por post
+    public Set<String> findExisting(Collection<String> externalIds) {
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(externalIds));
+        ids.removeIf(id -> id == null || id.isEmpty());
+
+        // O Bloom filter não tem falso negativo: quem ele não conhece é novo com certeza
+        List<String> maybeKnown = new ArrayList<>();
+        for (String id : ids) {
+            if (knownShortcodes.mightContain(id)) {
+                maybeKnown.add(id);
+            }
+        }
+
+        if (trustBloomPositives && knownShortcodes.isReady()) {
+            log.debug("🔎 Dedup: {} candidatos, {} prováveis existentes (Bloom, sem banco)",
+                    ids.size(), maybeKnown.size());
+            return new HashSet<>(maybeKnown);
+        }
+
+        Set<String> existing = new HashSet<>();
+        int size = Math.max(1, chunkSize);
+        for (int from = 0; from < maybeKnown.size(); from += size) {
+            List<String> chunk = maybeKnown.subList(from, Math.min(from + size, maybeKnown.size()));
+            existing.addAll(contentRepository.findExistingExternalIds(chunk));
+        }
+
+        log.debug("🔎 Dedup: {} candidatos, {} consultados no banco, {} já existentes",
+                ids.size(), maybeKnown.size(), existing.size());
+        return existing;
+    }
+
+    // Mantém a ordem dos candidatos, descartando os já salvos e os repetidos no próprio lote
+    public <T> List<T> filterNew(Collection<T> candidates, Function<T, String> externalIdOf) {
+        List<String> ids = new ArrayList<>(candidates.size());
+        for (T candidate : candidates) {
+            ids.add(externalIdOf.apply(candidate));
+        }
+        Set<String> seen = findExisting(ids);
+
+        List<T> fresh = new ArrayList<>();
+        for (T candidate : candidates) {
+            String id = externalIdOf.apply(candidate);
+            if (id != null && seen.add(id)) {
+                fresh.add(candidate);
+            }
+        }
+        return fresh;
+    }
+
+    // Ponto único de gravação dos posts coletados, mantendo o Bloom filter em dia
+    public List<Content> saveAll(List<Content> contents) {
+        if (contents.isEmpty()) {
+            return contents;
+        }
+        // Posts que outro scrape paralelo já gravou ficam de fora em vez de violar o índice único
+        List<Content> saved = bulkWrite ? bulkWriter.insertIgnoringExisting(contents) : contentRepository.saveAll(contents);
+        knownShortcodes.addAll(saved.stream().map(Content::getExternalId).toList());
+        return saved;
+    }
+}
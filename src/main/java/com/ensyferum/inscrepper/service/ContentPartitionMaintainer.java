@@ -0,0 +1,65 @@
+package com.ensyferum.inscrepper.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// PostgreSQL: contents é particionada por mês (migration V5); cria as partições dos próximos meses
+// com antecedência para os inserts não caírem em contents_default. Em H2 não há partição e nada é feito.
+@Slf4j
+@Component
+public class ContentPartitionMaintainer {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+
+    private volatile Boolean partitioned;
+
+    public ContentPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                      @Value("${scraper.content.partitions-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = Math.max(1, monthsAhead);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        ensurePartitions();
+    }
+
+    // Devolve quantas partições foram criadas (0 sem particionamento ou se já existiam)
+    @Scheduled(cron = "${scraper.content.partition-cron:0 30 3 * * *}")
+    public int ensurePartitions() {
+        if (!isPartitioned()) {
+            return 0;
+        }
+        try {
+            Integer created = jdbcTemplate.queryForObject(
+                    "select ensure_contents_partitions(now(), now() + make_interval(months => ?))",
+                    Integer.class, monthsAhead);
+            if (created != null && created > 0) {
+                log.info("🗂️ {} partições mensais de contents criadas ({} meses à frente)", created, monthsAhead);
+            }
+            return created == null ? 0 : created;
+        } catch (DataAccessException e) {
+            // Sem a partição do mês os posts vão para contents_default; a próxima execução tenta de novo
+            log.warn("⚠️ Falha ao criar partições de contents: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    public boolean isPartitioned() {
+        if (partitioned == null) {
+            Integer count = jdbcTemplate.queryForObject(
+                    "select count(*) from information_schema.routines " +
+                    "where lower(routine_name) = 'ensure_contents_partitions'",
+                    Integer.class);
+            partitioned = count != null && count > 0;
+        }
+        return partitioned;
+    }
+}
@@ -0,0 +1,327 @@
+package com.ensyferum.inscrepper.service;
+
+import com.ensyferum.inscrepper.model.Content;
+import com.ensyferum.inscrepper.model.ContentType;
+import com.ensyferum.inscrepper.model.Profile;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Lê os posts do JSON embutido na página (window._sharedData, <script type="application/json">,
+// __additionalDataLoaded) token a token, sem montar a árvore: cada objeto guarda só as chaves
+// que interessam e o post é emitido quando o objeto fecha
+@Slf4j
+@Component
+public class EmbeddedPostParser {
+
+    private static final String SCRIPT_OPEN = "<script";
+    private static final String SCRIPT_CLOSE = "</script>";
+    private static final String[] ASSIGNMENT_MARKERS = {
+            "window._sharedData", "window.__additionalDataLoaded", "window.__initialData"
+    };
+
+    // Chaves escalares guardadas em cada objeto; o resto é pulado sem decodificar
+    private static final Set<String> SCALAR_KEYS = Set.of(
+            "shortcode", "code", "taken_at", "taken_at_timestamp", "display_url", "__typename",
+            "media_type", "product_type", "like_count", "comment_count", "text", "url", "count");
+
+    // Wrappers cujo text/url/count sobem para o objeto pai (edges[0].node.text, candidates[0].url)
+    private static final Set<String> PASSTHROUGH_KEYS = Set.of("node", "edges", "candidates");
+    private static final Set<String> PASSTHROUGH_VALUES = Set.of("text", "url", "count");
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public record EmbeddedPost(String shortcode, ContentType type, String caption, Instant takenAt,
+                               String displayUrl, Long likeCount, Long commentCount) {
+
+        public String url() {
+            return new ShortcodeExtractor.PostRef(shortcode, type).url();
+        }
+
+        public Content toContent(Profile profile) {
+            Content content = Content.builder()
+                    .profile(profile)
+                    .externalId(shortcode)
+                    .url(url())
+                    .type(type)
+                    .collectedAt(Instant.now())
+                    .build();
+            applyTo(content);
+            return content;
+        }
+
+        // Completa um Content montado a partir do link com o que veio no JSON
+        public void applyTo(Content content) {
+            if (caption != null) {
+                content.setCaption(caption);
+            }
+            if (takenAt != null) {
+                content.setPublishedAt(takenAt);
+            }
+            if (displayUrl != null) {
+                content.setMediaUrl(displayUrl);
+            }
+            if (likeCount != null) {
+                content.setLikeCount(likeCount);
+            }
+            if (commentCount != null) {
+                content.setCommentCount(commentCount);
+            }
+            if (type == ContentType.REEL) {
+                content.setType(type);
+            }
+        }
+
+        // O mesmo post pode aparecer em mais de um payload; o primeiro vence, o segundo preenche lacunas
+        EmbeddedPost merge(EmbeddedPost other) {
+            return new EmbeddedPost(shortcode,
+                    type == ContentType.REEL ? type : other.type,
+                    caption != null ? caption : other.caption,
+                    takenAt != null ? takenAt : other.takenAt,
+                    displayUrl != null ? displayUrl : other.displayUrl,
+                    likeCount != null ? likeCount : other.likeCount,
+                    commentCount != null ? commentCount : other.commentCount);
+        }
+    }
+
+    // Percorre os <script> da página e só entrega ao parser os que parecem ter posts
+    public List<EmbeddedPost> parse(String page) {
+        Map<String, EmbeddedPost> posts = new LinkedHashMap<>();
+        if (page == null || page.isEmpty()) {
+            return new ArrayList<>();
+        }
+        char[] chars = page.toCharArray();
+
+        int from = page.indexOf(SCRIPT_OPEN);
+        if (from < 0) {
+            // Resposta JSON pura (API), sem HTML em volta
+            int start = skipWhitespace(page, 0, page.length());
+            if (start < page.length() && (chars[start] == '{' || chars[start] == '[')) {
+                parsePayload(chars, start, chars.length - start, posts);
+            }
+            return new ArrayList<>(posts.values());
+        }
+
+        while (from >= 0) {
+            int tagEnd = page.indexOf('>', from);
+            if (tagEnd < 0) {
+                break;
+            }
+            int bodyEnd = page.indexOf(SCRIPT_CLOSE, tagEnd);
+            if (bodyEnd < 0) {
+                bodyEnd = page.length();
+            }
+
+            int start = payloadStart(page, tagEnd + 1, bodyEnd);
+            if (start >= 0 && mentionsPosts(page, start, bodyEnd)) {
+                parsePayload(chars, start, bodyEnd - start, posts);
+            }
+            from = page.indexOf(SCRIPT_OPEN, bodyEnd);
+        }
+
+        log.debug("🧬 JSON embutido: {} posts", posts.size());
+        return new ArrayList<>(posts.values());
+    }
+
+    public Map<String, EmbeddedPost> parseByShortcode(String page) {
+        Map<String, EmbeddedPost> byShortcode = new LinkedHashMap<>();
+        for (EmbeddedPost post : parse(page)) {
+            byShortcode.put(post.shortcode(), post);
+        }
+        return byShortcode;
+    }
+
+    // JSON puro no corpo do script, ou o primeiro '{' depois de uma atribuição conhecida
+    private static int payloadStart(String page, int bodyStart, int bodyEnd) {
+        int start = skipWhitespace(page, bodyStart, bodyEnd);
+        if (start < bodyEnd && (page.charAt(start) == '{' || page.charAt(start) == '[')) {
+            return start;
+        }
+        for (String marker : ASSIGNMENT_MARKERS) {
+            int at = indexWithin(page, marker, start, bodyEnd);
+            if (at >= 0) {
+                int brace = page.indexOf('{', at + marker.length());
+                return brace >= 0 && brace < bodyEnd ? brace : -1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean mentionsPosts(String page, int start, int end) {
+        return indexWithin(page, "\"shortcode\"", start, end) >= 0
+                || indexWithin(page, "\"code\"", start, end) >= 0;
+    }
+
+    // indexOf limitado a [start, end), para não varrer o resto da página a cada script
+    private static int indexWithin(String page, String needle, int start, int end) {
+        char first = needle.charAt(0);
+        for (int at = start; at + needle.length() <= end; at++) {
+            if (page.charAt(at) == first && page.startsWith(needle, at)) {
+                return at;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipWhitespace(String page, int pos, int end) {
+        while (pos < end && Character.isWhitespace(page.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    // Um objeto/array aberto: só as chaves de SCALAR_KEYS e o que sobe dos filhos
+    private static final class Frame {
+        final String key;
+        final boolean array;
+        final int emittedMark;
+        final Map<String, Object> values = new HashMap<>();
+
+        Frame(String key, boolean array, int emittedMark) {
+            this.key = key;
+            this.array = array;
+            this.emittedMark = emittedMark;
+        }
+    }
+
+    private void parsePayload(char[] chars, int offset, int length, Map<String, EmbeddedPost> posts) {
+        List<EmbeddedPost> emitted = new ArrayList<>();
+        Deque<Frame> stack = new ArrayDeque<>();
+        String field = null;
+
+        try (JsonParser parser = jsonFactory.createParser(chars, offset, length)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                Frame top = stack.peek();
+                switch (token) {
+                    case FIELD_NAME -> field = parser.currentName();
+                    case START_OBJECT, START_ARRAY -> {
+                        stack.push(new Frame(field, token == JsonToken.START_ARRAY, emitted.size()));
+                        field = null;
+                    }
+                    case END_OBJECT, END_ARRAY -> {
+                        Frame done = stack.pop();
+                        // Objeto que virou post não repassa nada para o pai
+                        boolean post = !done.array && closeObject(done, emitted);
+                        if (!post && !stack.isEmpty()) {
+                            propagate(done, stack.peek());
+                        }
+                        field = null;
+                    }
+                    case VALUE_STRING, VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT, VALUE_TRUE, VALUE_FALSE -> {
+                        if (top != null && !top.array && field != null && SCALAR_KEYS.contains(field)) {
+                            top.values.put(field, scalar(parser, token));
+                        }
+                        field = null;
+                    }
+                    default -> field = null;
+                }
+                if (stack.isEmpty() && (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY)) {
+                    // Fim do valor raiz: o que vem depois (";", "</script>") não é JSON
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            log.debug("JSON embutido inválido/truncado ({} posts lidos antes do erro): {}",
+                    emitted.size(), e.getMessage());
+        }
+
+        for (EmbeddedPost post : emitted) {
+            posts.merge(post.shortcode(), post, EmbeddedPost::merge);
+        }
+    }
+
+    private static Object scalar(JsonParser parser, JsonToken token) throws IOException {
+        return switch (token) {
+            case VALUE_NUMBER_INT -> parser.getLongValue();
+            case VALUE_NUMBER_FLOAT -> parser.getDoubleValue();
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            default -> parser.getText();
+        };
+    }
+
+    // Emite o objeto se ele for um post; posts aninhados (filhos de carrossel) são descartados
+    private static boolean closeObject(Frame frame, List<EmbeddedPost> emitted) {
+        Map<String, Object> v = frame.values;
+        Object code = v.containsKey("shortcode") ? v.get("shortcode") : v.get("code");
+        if (!(code instanceof String shortcode) || shortcode.isEmpty()) {
+            return false;
+        }
+        boolean looksLikeMedia = v.containsKey("taken_at") || v.containsKey("taken_at_timestamp")
+                || v.containsKey("display_url") || v.containsKey("image") || v.containsKey("media_type")
+                || (v.get("__typename") instanceof String typename && typename.startsWith("Graph"));
+        if (!looksLikeMedia) {
+            return false;
+        }
+
+        Object taken = v.containsKey("taken_at") ? v.get("taken_at") : v.get("taken_at_timestamp");
+        Object displayUrl = v.containsKey("display_url") ? v.get("display_url") : v.get("image");
+        Object likes = v.containsKey("like_count") ? v.get("like_count") : v.get("likes");
+        Object comments = v.containsKey("comment_count") ? v.get("comment_count") : v.get("comments");
+
+        while (emitted.size() > frame.emittedMark) {
+            emitted.remove(emitted.size() - 1);
+        }
+        emitted.add(new EmbeddedPost(
+                shortcode,
+                typeOf(v),
+                v.get("caption") instanceof String caption ? caption : null,
+                taken instanceof Long seconds ? Instant.ofEpochSecond(seconds) : null,
+                displayUrl instanceof String url ? url : null,
+                likes instanceof Long count ? count : null,
+                comments instanceof Long count ? count : null));
+        return true;
+    }
+
+    // Reels: product_type "clips" (API nova e GraphQL antigo); o resto é tratado como post
+    private static ContentType typeOf(Map<String, Object> values) {
+        return "clips".equals(values.get("product_type")) ? ContentType.REEL : ContentType.POST;
+    }
+
+    // Ao fechar um filho, traduz o que ele juntou para as chaves do pai
+    private static void propagate(Frame child, Frame parent) {
+        Map<String, Object> from = child.values;
+        Map<String, Object> to = parent.values;
+
+        if (parent.array || (child.key != null && PASSTHROUGH_KEYS.contains(child.key))) {
+            // Primeiro elemento vence: edges[0] é a legenda, candidates[0] é a maior imagem
+            for (String key : PASSTHROUGH_VALUES) {
+                if (from.containsKey(key)) {
+                    to.putIfAbsent(key, from.get(key));
+                }
+            }
+            return;
+        }
+        if (child.key == null) {
+            return;
+        }
+        switch (child.key) {
+            case "caption", "edge_media_to_caption" -> copy(from, "text", to, "caption");
+            case "edge_liked_by", "edge_media_preview_like" -> copy(from, "count", to, "likes");
+            case "edge_media_to_comment", "edge_media_preview_comment" -> copy(from, "count", to, "comments");
+            case "image_versions2" -> copy(from, "url", to, "image");
+            default -> { }
+        }
+    }
+
+    private static void copy(Map<String, Object> from, String fromKey, Map<String, Object> to, String toKey) {
+        Object value = from.get(fromKey);
+        if (value != null) {
+            to.putIfAbsent(toKey, value);
+        }
+    }
+}
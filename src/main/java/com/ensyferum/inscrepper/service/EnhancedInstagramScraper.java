@@ -3,13 +3,10 @@ package com.ensyferum.inscrepper.service;
 import com.ensyferum.inscrepper.model.Content;
 import com.ensyferum.inscrepper.model.ContentType;
 import com.ensyferum.inscrepper.model.Profile;
-import com.ensyferum.inscrepper.repository.ContentRepository;
-import io.github.bonigarcia.wdm.WebDriverManager;
+import com.ensyferum.inscrepper.model.ScrapeTier;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.*;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.springframework.stereotype.Service;
 
@@ -17,141 +14,70 @@ import org.springframework.stereotype.Service;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class EnhancedInstagramScraper {
+public class EnhancedInstagramScraper implements ProfileScraper {
 
-    private final ContentRepository contentRepository;
+    private final ContentDedupService contentDedupService;
+    private final ShortcodeExtractor shortcodeExtractor;
+    private final WebDriverPool driverPool;
+    private final EmbeddedPostParser embeddedPostParser;
+    private final NetworkResponseCapture networkCapture;
+    private final PageReadiness pageReadiness;
+    private final PolitenessPolicy politeness;
     
     private static final String INSTAGRAM_BASE_URL = "https://www.instagram.com/";
     private static final int MAX_POSTS_TO_SCRAPE = 6;
     private static final int MAX_RETRY_ATTEMPTS = 3;
     
-    // Pool de User-Agents realísticos
-    private static final String[] USER_AGENTS = {
-        "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36",
-        "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/119.0.0.0 Safari/537.36",
-        "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36",
-        "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36",
-        "Mozilla/5.0 (Windows NT 10.0; Win64; x64; rv:109.0) Gecko/20100101 Firefox/121.0",
-        "Mozilla/5.0 (Macintosh; Intel Mac OS X 10.15; rv:109.0) Gecko/20100101 Firefox/121.0"
-    };
-    
-    // Diferentes estratégias de viewport
-    private static final String[][] VIEWPORTS = {
-        {"1920", "1080"},
-        {"1366", "768"},
-        {"1440", "900"},
-        {"1600", "900"},
-        {"1280", "720"}
-    };
+    @Override
+    public String type() {
+        return "enhanced";
+    }
+
+    @Override
+    public ScrapeTier tier() {
+        return ScrapeTier.BROWSER;
+    }
 
     public List<Content> scrapeProfile(Profile profile) {
-        List<Content> results = new ArrayList<>();
-        
+        Exception lastError = null;
         for (int attempt = 1; attempt <= MAX_RETRY_ATTEMPTS; attempt++) {
+            // Pausa de cortesia só antes de repetir uma tentativa que falhou
+            if (attempt > 1) {
+                politeness.beforeRetry();
+            }
             log.info("🔄 Tentativa {} de {} para @{}", attempt, MAX_RETRY_ATTEMPTS, profile.getUsername());
             
             WebDriver driver = null;
+            boolean healthy = false;
             try {
-                driver = createEnhancedWebDriver(attempt);
-                results = performScraping(driver, profile, attempt);
-                
-                if (!results.isEmpty()) {
-                    log.info("✅ Sucesso na tentativa {} - {} posts encontrados", attempt, results.size());
-                    break;
-                } else {
-                    log.warn("⚠️ Tentativa {} falhou - nenhum post encontrado", attempt);
-                }
+                driver = driverPool.borrow();
+                // Página carregada e validada é sucesso, mesmo sem posts novos (perfil em dia)
+                List<Content> results = performScraping(driver, profile, attempt);
+                healthy = true;
+                log.info("✅ Sucesso na tentativa {} - {} posts novos", attempt, results.size());
+                return results;
                 
             } catch (Exception e) {
+                lastError = e;
                 log.error("❌ Erro na tentativa {}: {}", attempt, e.getMessage());
-                
-                if (attempt == MAX_RETRY_ATTEMPTS) {
-                    log.error("💥 Todas as tentativas falharam para @{}", profile.getUsername());
-                }
             } finally {
-                if (driver != null) {
-                    try {
-                        driver.quit();
-                    } catch (Exception e) {
-                        log.debug("Erro ao fechar driver: {}", e.getMessage());
-                    }
-                }
-                
-                // Delay entre tentativas
-                if (attempt < MAX_RETRY_ATTEMPTS) {
-                    randomDelay(3000, 8000);
+                // Sessões que falharam são descartadas para a próxima tentativa usar um browser novo
+                if (healthy) {
+                    driverPool.release(driver);
+                } else {
+                    driverPool.invalidate(driver);
                 }
             }
         }
         
-        return results;
-    }
-    
-    private WebDriver createEnhancedWebDriver(int attempt) {
-        log.info("🚀 Criando WebDriver enhanced - tentativa {}", attempt);
-        
-        WebDriverManager.chromedriver().setup();
-        
-        ChromeOptions options = new ChromeOptions();
-        
-        // User Agent aleatório
-        String userAgent = USER_AGENTS[ThreadLocalRandom.current().nextInt(USER_AGENTS.length)];
-        options.addArguments("--user-agent=" + userAgent);
-        log.debug("👤 User Agent: {}", userAgent);
-        
-        // Viewport aleatório
-        String[] viewport = VIEWPORTS[ThreadLocalRandom.current().nextInt(VIEWPORTS.length)];
-        options.addArguments("--window-size=" + viewport[0] + "," + viewport[1]);
-        log.debug("📱 Viewport: {}x{}", viewport[0], viewport[1]);
-        
-        // Configurações anti-detecção
-        options.addArguments("--no-sandbox");
-        options.addArguments("--disable-dev-shm-usage");
-        options.addArguments("--disable-blink-features=AutomationControlled");
-        options.addArguments("--disable-extensions");
-        options.addArguments("--disable-plugins");
-        options.addArguments("--disable-images"); // Acelerar carregamento
-        options.addArguments("--disable-javascript-harmony"); 
-        options.addArguments("--disable-web-security");
-        options.addArguments("--allow-running-insecure-content");
-        
-        // Headers customizados
-        options.addArguments("--disable-features=VizDisplayCompositor");
-        
-        // Configurações de preferências
-        Map<String, Object> prefs = new HashMap<>();
-        prefs.put("profile.default_content_setting_values.notifications", 2);
-        prefs.put("profile.default_content_settings.popups", 0);
-        prefs.put("profile.managed_default_content_settings.images", 2); // Bloquear imagens
-        options.setExperimentalOption("prefs", prefs);
-        
-        // Remover automação detectável
-        options.setExperimentalOption("excludeSwitches", Arrays.asList("enable-automation"));
-        options.setExperimentalOption("useAutomationExtension", false);
-        
-        // Modo headless apenas na segunda tentativa em diante
-        if (attempt > 1) {
-            options.addArguments("--headless");
-            log.debug("🤖 Modo headless ativado");
-        }
-        
-        ChromeDriver driver = new ChromeDriver(options);
-        
-        // Configurar script para mascarar automação
-        driver.executeScript("Object.defineProperty(navigator, 'webdriver', {get: () => undefined})");
-        
-        // Timeouts otimizados
-        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(5));
-        
-        return driver;
+        log.error("💥 Todas as tentativas falharam para @{}", profile.getUsername());
+        // Falha precisa chegar ao ScraperMetrics: lista vazia seria lida como "sem posts novos"
+        throw new IllegalStateException("Todas as tentativas falharam para @" + profile.getUsername()
+                + ": " + lastError.getMessage(), lastError);
     }
     
     private List<Content> performScraping(WebDriver driver, Profile profile, int attempt) {
@@ -160,45 +86,60 @@ public class EnhancedInstagramScraper {
         String profileUrl = INSTAGRAM_BASE_URL + profile.getUsername() + "/";
         log.info("🌐 Acessando: {}", profileUrl);
         
-        // Navegar com delay
-        driver.get(profileUrl);
-        randomDelay(2000, 5000);
+        // A captura precisa estar aberta antes da navegação para ver o documento e os primeiros XHRs
+        try (NetworkResponseCapture.Capture capture = networkCapture.begin(driver)) {
+            // Navegar e esperar o grid estabilizar
+            driver.get(profileUrl);
+            PageReadiness.Snapshot ready = pageReadiness.awaitSettled(driver);
+            log.info("📄 Página pronta: {} links de posts", ready.anchors());
         
-        // Verificar se a página carregou corretamente
-        if (!validatePageLoad(driver, profile)) {
-            throw new RuntimeException("Falha ao carregar página do perfil");
-        }
+            // Verificar se a página carregou corretamente
+            if (!validatePageLoad(driver, profile)) {
+                throw new RuntimeException("Falha ao carregar página do perfil");
+            }
         
-        // Aceitar cookies se aparecer
-        handleCookieConsent(driver);
+            // Aceitar cookies se aparecer
+            handleCookieConsent(driver);
         
-        // Fazer scroll para carregar posts
-        performIntelligentScrolling(driver);
+            // Fazer scroll para carregar posts
+            performIntelligentScrolling(driver, ready);
         
-        // Extrair posts com múltiplas estratégias
-        Set<String> postUrls = extractPostUrls(driver, attempt);
-        log.info("📊 URLs encontradas: {}", postUrls.size());
+            // Extrair posts com múltiplas estratégias
+            Set<String> postUrls = extractPostUrls(driver, attempt);
+            log.info("📊 URLs encontradas: {}", postUrls.size());
         
-        // Processar posts encontrados
-        int processedCount = 0;
-        for (String postUrl : postUrls) {
-            if (processedCount >= MAX_POSTS_TO_SCRAPE) {
-                break;
-            }
-            
-            try {
-                Content content = createContentFromUrl(postUrl, profile);
-                if (content != null && !contentRepository.existsByExternalId(content.getExternalId())) {
-                    contents.add(content);
-                    processedCount++;
-                    log.info("✅ Post {}: {}", processedCount, content.getExternalId());
+            // Legenda, data e mídia vêm dos JSONs capturados na rede; sem DevTools, do JSON embutido na página
+            Map<String, EmbeddedPostParser.EmbeddedPost> embedded = capture.listening()
+                    ? capture.byShortcode()
+                    : embeddedPostParser.parseByShortcode(driver.getPageSource());
+            log.info("🧬 Posts estruturados ({}): {}", capture.listening() ? "rede" : "página", embedded.size());
+        
+            // Descarta em lote os posts já salvos (uma query em vez de uma por URL)
+            List<String> newUrls = contentDedupService.filterNew(postUrls, this::extractShortcode);
+            log.info("🆕 URLs novas: {} ({} já existentes)", newUrls.size(), postUrls.size() - newUrls.size());
+        
+            // Processar posts encontrados
+            int processedCount = 0;
+            for (String postUrl : newUrls) {
+                if (processedCount >= MAX_POSTS_TO_SCRAPE) {
+                    break;
                 }
+            
+                try {
+                    Content content = createContentFromUrl(postUrl, profile);
+                    if (content != null) {
+                        EmbeddedPostParser.EmbeddedPost post = embedded.get(content.getExternalId());
+                        if (post != null) {
+                            post.applyTo(content);
+                        }
+                        contents.add(content);
+                        processedCount++;
+                        log.info("✅ Post {}: {}", processedCount, content.getExternalId());
+                    }
                 
-                // Small delay entre processamento de posts
-                randomDelay(500, 1500);
-                
-            } catch (Exception e) {
-                log.error("❌ Erro ao processar post {}: {}", postUrl, e.getMessage());
+                } catch (Exception e) {
+                    log.error("❌ Erro ao processar post {}: {}", postUrl, e.getMessage());
+                }
             }
         }
         
@@ -223,19 +164,17 @@ public class EnhancedInstagramScraper {
                 return false;
             }
             
-            // Verificar se não estamos bloqueados
-            if (pageSource.contains("Please wait a few minutes") ||
-                pageSource.contains("Try again later") ||
-                pageSource.contains("Aguarde alguns minutos")) {
-                log.error("❌ Rate limit detectado");
+            // Verificar se não estamos bloqueados (rate limit, login wall, checkpoint)
+            if (HttpInstagramScraper.looksBlocked(200, pageSource)) {
+                log.error("❌ Página de bloqueio detectada");
                 return false;
             }
             
             // Aguardar elementos essenciais
             WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
             try {
-                wait.until(d -> d.getPageSource().contains("instagram") || 
-                          d.getPageSource().contains("Instagram"));
+                wait.until(d -> "complete".equals(
+                        ((JavascriptExecutor) d).executeScript("return document.readyState")));
             } catch (TimeoutException e) {
                 log.warn("⚠️ Timeout aguardando elementos do Instagram");
                 return false;
@@ -276,7 +215,7 @@ public class EnhancedInstagramScraper {
                     if (cookieButton != null && cookieButton.isDisplayed()) {
                         cookieButton.click();
                         log.info("🍪 Cookies aceitos");
-                        randomDelay(1000, 2000);
+                        politeness.pause();
                         return;
                     }
                 } catch (TimeoutException e) {
@@ -289,36 +228,15 @@ public class EnhancedInstagramScraper {
         }
     }
     
-    private void performIntelligentScrolling(WebDriver driver) {
+    private void performIntelligentScrolling(WebDriver driver, PageReadiness.Snapshot ready) {
         log.info("📜 Iniciando scroll inteligente");
         
-        JavascriptExecutor js = (JavascriptExecutor) driver;
-        
-        // Scroll inicial
-        js.executeScript("window.scrollTo(0, 500);");
-        randomDelay(1000, 2000);
-        
-        // Múltiplos scrolls com delays
-        for (int i = 0; i < 3; i++) {
-            long scrollHeight = (Long) js.executeScript("return document.body.scrollHeight");
-            long currentScroll = (Long) js.executeScript("return window.pageYOffset");
-            
-            // Scroll parcial
-            long newScroll = currentScroll + (scrollHeight / 4);
-            js.executeScript("window.scrollTo(0, " + newScroll + ");");
-            
-            randomDelay(2000, 4000);
-            
-            // Verificar se carregou novo conteúdo
-            long newScrollHeight = (Long) js.executeScript("return document.body.scrollHeight");
-            if (newScrollHeight > scrollHeight) {
-                log.debug("📈 Novo conteúdo carregado");
-            }
-        }
+        // Cada rolagem espera o grid crescer; para assim que uma rolagem não traz nada novo
+        PageReadiness.Snapshot last = pageReadiness.scrollUntilExhausted(driver, ready);
+        log.debug("📈 {} links de posts após o scroll", last.anchors());
         
         // Scroll de volta para o topo
-        js.executeScript("window.scrollTo(0, 0);");
-        randomDelay(1000, 2000);
+        ((JavascriptExecutor) driver).executeScript("window.scrollTo(0, 0);");
     }
     
     private Set<String> extractPostUrls(WebDriver driver, int attempt) {
@@ -413,34 +331,14 @@ public class EnhancedInstagramScraper {
         
         try {
             String pageSource = driver.getPageSource();
-            
-            String[] patterns = {
-                "https://www\\.instagram\\.com/p/([a-zA-Z0-9_-]+)/",
-                "https://www\\.instagram\\.com/reel/([a-zA-Z0-9_-]+)/",
-                "\"/p/([a-zA-Z0-9_-]+)/\"",
-                "\"/reel/([a-zA-Z0-9_-]+)/\""
-            };
-            
-            for (String patternStr : patterns) {
-                Pattern pattern = Pattern.compile(patternStr);
-                Matcher matcher = pattern.matcher(pageSource);
-                
-                while (matcher.find() && urls.size() < MAX_POSTS_TO_SCRAPE * 2) {
-                    String fullMatch = matcher.group(0);
-                    
-                    if (!fullMatch.startsWith("http")) {
-                        fullMatch = "https://www.instagram.com" + fullMatch.replace("\"", "");
-                    }
-                    
-                    urls.add(normalizeUrl(fullMatch));
-                }
+            for (ShortcodeExtractor.PostRef ref : shortcodeExtractor.extract(pageSource, MAX_POSTS_TO_SCRAPE * 2)) {
+                urls.add(ref.url());
             }
-            
         } catch (Exception e) {
-            log.debug("Erro na extração Regex: {}", e.getMessage());
+            log.debug("Erro na extração do PageSource: {}", e.getMessage());
         }
         
-        log.info("🔍 Regex encontrou {} URLs", urls.size());
+        log.info("🔍 PageSource encontrou {} URLs", urls.size());
         return urls;
     }
     
@@ -482,32 +380,15 @@ public class EnhancedInstagramScraper {
     }
     
     private String extractShortcode(String url) {
-        try {
-            Pattern pattern = Pattern.compile("/(?:p|reel)/([a-zA-Z0-9_-]+)");
-            Matcher matcher = pattern.matcher(url);
-            if (matcher.find()) {
-                return matcher.group(1);
-            }
-        } catch (Exception e) {
-            log.debug("Erro ao extrair shortcode: {}", e.getMessage());
-        }
-        
-        return String.valueOf(Math.abs(url.hashCode()));
-    }
-    
-    private void randomDelay(int minMs, int maxMs) {
-        try {
-            int delay = ThreadLocalRandom.current().nextInt(minMs, maxMs + 1);
-            Thread.sleep(delay);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        String shortcode = shortcodeExtractor.shortcodeOf(url);
+        return shortcode != null ? shortcode : String.valueOf(Math.abs(url.hashCode()));
     }
     
+    @Override
     public List<Content> scrapeAndSaveProfile(Profile profile) {
         List<Content> contents = scrapeProfile(profile);
         if (!contents.isEmpty()) {
-            return contentRepository.saveAll(contents);
+            return contentDedupService.saveAll(contents);
         }
         return contents;
     }
@@ -0,0 +1,339 @@
+package com.ensyferum.inscrepper.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.brotli.dec.BrotliInputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+// Cliente HTTP compartilhado: pool de conexões/HTTP2 do java.net.http, limite por host e descompressão
+@Slf4j
+@Component
+public class HttpFetcher {
+
+    static final String ACCEPT_ENCODING = "gzip, deflate, br";
+    // Corpo comprimido de HTML costuma render 4-8x; usado só como palpite inicial do buffer
+    private static final int COMPRESSED_SIZE_FACTOR = 6;
+    private static final int DEFAULT_TEXT_CAPACITY = 64 * 1024;
+    private static final int MAX_INITIAL_CAPACITY = 8 * 1024 * 1024;
+
+    // Prazo total da requisição: o timeout do HttpRequest só cobre a espera pelos cabeçalhos,
+    // e um corpo que trava no meio seguraria a thread e a vaga do host indefinidamente
+    private static final ScheduledThreadPoolExecutor DEADLINES = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread t = new Thread(r, "http-deadline");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        DEADLINES.setRemoveOnCancelPolicy(true);
+    }
+
+    private final HttpClient client;
+    private final Duration requestTimeout;
+    private final Duration acquireTimeout;
+    private final int maxPerHost;
+    private final String userAgent;
+    private final String acceptLanguage;
+
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    // Métricas
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong acquireTimeouts = new AtomicLong();
+    private final AtomicLong bytesOnWire = new AtomicLong();
+    private final AtomicLong bytesDecoded = new AtomicLong();
+    private final AtomicLong http2Responses = new AtomicLong();
+    private final AtomicLong compressedResponses = new AtomicLong();
+    // Bytes de rede lidos pela thread atual; o ScraperMetrics mede o custo de cada estratégia pela diferença
+    private final ThreadLocal<long[]> threadBytesOnWire = ThreadLocal.withInitial(() -> new long[1]);
+
+    public HttpFetcher(@Value("${scraper.http.connect-timeout:PT10S}") Duration connectTimeout,
+                       @Value("${scraper.http.request-timeout:PT20S}") Duration requestTimeout,
+                       @Value("${scraper.http.acquire-timeout:PT30S}") Duration acquireTimeout,
+                       @Value("${scraper.http.max-per-host:4}") int maxPerHost,
+                       @Value("${scraper.http.user-agent:Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36}") String userAgent,
+                       @Value("${scraper.http.accept-language:pt-BR,pt;q=0.8,en;q=0.6}") String acceptLanguage) {
+        this.requestTimeout = requestTimeout;
+        this.acquireTimeout = acquireTimeout;
+        this.maxPerHost = Math.max(1, maxPerHost);
+        this.userAgent = userAgent;
+        this.acceptLanguage = acceptLanguage;
+        // Um único HttpClient: conexões keep-alive/TLS reaproveitadas e multiplexação HTTP/2 via ALPN
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(connectTimeout)
+                .build();
+        log.info("🌐 HttpFetcher iniciado: maxPerHost={}, connectTimeout={}, requestTimeout={}",
+                this.maxPerHost, connectTimeout, requestTimeout);
+    }
+
+    @FunctionalInterface
+    public interface ResponseHandler<T> {
+        // body já vem descomprimido; é fechado pelo HttpFetcher depois do handler
+        T handle(int status, HttpHeaders headers, InputStream body) throws IOException;
+    }
+
+    public <T> T get(String url, ResponseHandler<T> handler) throws IOException {
+        return get(url, Map.of(), handler);
+    }
+
+    public <T> T get(String url, Map<String, String> headers, ResponseHandler<T> handler) throws IOException {
+        URI uri = uri(url);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header("User-Agent", userAgent)
+                .header("Accept-Language", acceptLanguage)
+                .header("Accept-Encoding", ACCEPT_ENCODING)
+                .GET();
+        headers.forEach(builder::setHeader);
+
+        Semaphore permits = hostPermits.computeIfAbsent(hostKey(uri), h -> new Semaphore(maxPerHost, true));
+        acquire(permits, uri);
+        long deadline = System.nanoTime() + requestTimeout.toNanos();
+        // A vaga volta uma única vez: no fim normal ou quando o prazo estoura com o handler ainda lendo
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        };
+        ScheduledFuture<?> timer = null;
+        requests.incrementAndGet();
+        try {
+            HttpResponse<InputStream> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+            if (response.version() == HttpClient.Version.HTTP_2) {
+                http2Responses.incrementAndGet();
+            }
+
+            // Prazo estourado: fecha o stream (a leitura bloqueada falha) e libera a vaga do host
+            InputStream raw = response.body();
+            AtomicBoolean expired = new AtomicBoolean();
+            timer = DEADLINES.schedule(() -> {
+                expired.set(true);
+                closeQuietly(raw);
+                release.run();
+            }, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+
+            // 204/304 não têm corpo para descomprimir, mesmo com Content-Encoding
+            boolean hasBody = response.statusCode() != 204 && response.statusCode() != 304;
+            String encoding = hasBody
+                    ? response.headers().firstValue("Content-Encoding").orElse("identity")
+                    : "identity";
+            long[] threadBytes = threadBytesOnWire.get();
+            InputStream wire = new CountingInputStream(raw, n -> {
+                bytesOnWire.addAndGet(n);
+                threadBytes[0] += n;
+            });
+            try (InputStream body = new CountingInputStream(decode(wire, encoding), bytesDecoded::addAndGet)) {
+                return handler.handle(response.statusCode(), response.headers(), body);
+            } catch (IOException e) {
+                if (expired.get()) {
+                    throw new HttpTimeoutException("Resposta não terminou em " + requestTimeout + ": " + url);
+                }
+                throw e;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failures.incrementAndGet();
+            throw new IOException("Requisição interrompida: " + url, e);
+        } catch (IOException | RuntimeException e) {
+            failures.incrementAndGet();
+            throw e;
+        } finally {
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            release.run();
+        }
+    }
+
+    // URLs de mídia vêm do HTML raspado; malformada é erro de I/O como qualquer outro para quem chama
+    private static URI uri(String url) throws IOException {
+        try {
+            URI uri = URI.create(url);
+            boolean http = "http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme());
+            if (!http || uri.getHost() == null) {
+                throw new IOException("URL não é http(s) absoluta: " + url);
+            }
+            return uri;
+        } catch (IllegalArgumentException e) {
+            throw new IOException("URL inválida: " + url, e);
+        }
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException e) {
+            log.trace("Falha ao fechar corpo expirado: {}", e.getMessage());
+        }
+    }
+
+    private void acquire(Semaphore permits, URI uri) throws IOException {
+        try {
+            if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                acquireTimeouts.incrementAndGet();
+                throw new IOException("Timeout aguardando vaga para o host " + uri.getHost());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrompido aguardando vaga para o host " + uri.getHost(), e);
+        }
+    }
+
+    // Content-Encoding pode listar várias codificações: desfaz na ordem inversa da aplicação
+    private InputStream decode(InputStream raw, String contentEncoding) throws IOException {
+        String[] encodings = contentEncoding.split(",");
+        InputStream in = raw;
+        boolean compressed = false;
+        for (int i = encodings.length - 1; i >= 0; i--) {
+            String encoding = encodings[i].trim().toLowerCase();
+            switch (encoding) {
+                case "gzip", "x-gzip" -> in = new GZIPInputStream(in, 16 * 1024);
+                case "deflate" -> in = inflate(in);
+                case "br" -> in = new BrotliInputStream(in);
+                case "identity", "" -> {
+                    continue;
+                }
+                default -> throw new IOException("Content-Encoding não suportado: " + encoding);
+            }
+            compressed = true;
+        }
+        if (compressed) {
+            compressedResponses.incrementAndGet();
+        }
+        return in;
+    }
+
+    // "deflate" deveria ser zlib (RFC 1950), mas há servidores que mandam deflate cru (RFC 1951)
+    private static InputStream inflate(InputStream in) throws IOException {
+        PushbackInputStream pushback = new PushbackInputStream(in, 2);
+        byte[] header = pushback.readNBytes(2);
+        pushback.unread(header);
+
+        boolean zlib = header.length == 2
+                && (header[0] & 0x0f) == 8
+                && (((header[0] & 0xff) << 8) | (header[1] & 0xff)) % 31 == 0;
+        return new InflaterInputStream(pushback, new Inflater(!zlib), 16 * 1024);
+    }
+
+    // Lê o corpo inteiro num único buffer pré-dimensionado e decodifica de uma vez (sem String por linha)
+    public static String readText(InputStream body, HttpHeaders headers) throws IOException {
+        long declared = headers.firstValueAsLong("Content-Length").orElse(-1);
+        boolean compressed = headers.firstValue("Content-Encoding")
+                .map(e -> !e.equalsIgnoreCase("identity"))
+                .orElse(false);
+
+        int capacity = DEFAULT_TEXT_CAPACITY;
+        if (declared > 0) {
+            long expected = compressed ? declared * COMPRESSED_SIZE_FACTOR : declared;
+            capacity = (int) Math.min(MAX_INITIAL_CAPACITY, expected + 1);
+        }
+
+        byte[] buffer = new byte[capacity];
+        int length = 0;
+        int n;
+        while ((n = body.read(buffer, length, buffer.length - length)) != -1) {
+            length += n;
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+        }
+        return new String(buffer, 0, length, charsetOf(headers));
+    }
+
+    static Charset charsetOf(HttpHeaders headers) {
+        String contentType = headers.firstValue("Content-Type").orElse("");
+        for (String param : contentType.split(";")) {
+            String trimmed = param.trim();
+            if (trimmed.regionMatches(true, 0, "charset=", 0, 8)) {
+                String name = trimmed.substring(8).replace("\"", "").trim();
+                try {
+                    return Charset.forName(name);
+                } catch (IllegalArgumentException e) {
+                    log.debug("Charset desconhecido '{}', usando UTF-8", name);
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    private static String hostKey(URI uri) {
+        return uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort();
+    }
+
+    public long bytesOnWireByCurrentThread() {
+        return threadBytesOnWire.get()[0];
+    }
+
+    public HttpStats stats() {
+        int inFlight = 0;
+        for (Semaphore permits : hostPermits.values()) {
+            inFlight += maxPerHost - permits.availablePermits();
+        }
+        return new HttpStats(maxPerHost, hostPermits.size(), inFlight, requests.get(), failures.get(),
+                acquireTimeouts.get(), http2Responses.get(), compressedResponses.get(),
+                bytesOnWire.get(), bytesDecoded.get());
+    }
+
+    public record HttpStats(int maxPerHost, int hosts, int inFlight, long requests, long failures,
+                            long acquireTimeouts, long http2Responses, long compressedResponses,
+                            long bytesOnWire, long bytesDecoded) {}
+
+    // Conta os bytes que passam pelo stream (antes ou depois da descompressão, conforme onde é encaixado)
+    private static class CountingInputStream extends FilterInputStream {
+        private final LongConsumer counter;
+
+        CountingInputStream(InputStream in, LongConsumer counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                counter.accept(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                counter.accept(n);
+            }
+            return n;
+        }
+    }
+}
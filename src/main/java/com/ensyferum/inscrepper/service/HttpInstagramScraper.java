@@ -3,20 +3,17 @@ package com.ensyferum.inscrepper.service;
 import com.ensyferum.inscrepper.model.Content;
 import com.ensyferum.inscrepper.model.ContentType;
 import com.ensyferum.inscrepper.model.Profile;
-import com.ensyferum.inscrepper.repository.ContentRepository;
+import com.ensyferum.inscrepper.model.ScrapeTier;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.util.zip.GZIPInputStream;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -24,110 +21,171 @@ import java.util.regex.Pattern;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class HttpInstagramScraper {
+public class HttpInstagramScraper implements ProfileScraper {
 
-    private final ContentRepository contentRepository;
+    private final ContentDedupService contentDedupService;
+    private final HttpFetcher httpFetcher;
+    private final ConditionalPageFetcher pageFetcher;
+    private final ShortcodeExtractor shortcodeExtractor;
+    private final EmbeddedPostParser embeddedPostParser;
     
     private static final String INSTAGRAM_BASE_URL = "https://www.instagram.com/";
+    private static final Map<String, String> HTML_HEADERS = Map.of(
+            "Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/webp,*/*;q=0.8");
     private static final int MAX_POSTS_TO_SCRAPE = 6;
 
+    @Override
+    public String type() {
+        return "http";
+    }
+
+    @Override
+    public ScrapeTier tier() {
+        return ScrapeTier.HTTP;
+    }
+
+    public enum Outcome {
+        OK,          // página lida (pode não ter posts novos)
+        UNCHANGED,   // 304 / mesmo hash: nada a fazer
+        BLOCKED,     // login wall, rate limit ou checkpoint
+        FAILED       // erro de rede/HTTP ou HTML vazio
+    }
+
+    // postsFound conta todos os posts vistos na página, inclusive os já salvos (mede a qualidade da leitura)
+    public record Result(Outcome outcome, int httpStatus, int postsFound, List<Content> contents) {
+        static Result of(Outcome outcome, int httpStatus) {
+            return new Result(outcome, httpStatus, 0, new ArrayList<>());
+        }
+    }
+
+    // Sinais de que o Instagram devolveu uma página de bloqueio em vez do perfil
+    private static final String[] BLOCK_MARKERS = {
+            "Please wait a few minutes", "Aguarde alguns minutos", "Try again later",
+            "checkpoint_required", "\"challenge\":", "<title>Login • Instagram</title>",
+            "id=\"loginForm\""
+    };
+
     public List<Content> scrapeProfile(Profile profile) {
+        return scrape(profile).contents();
+    }
+
+    public Result scrape(Profile profile) {
         List<Content> scrapedContents = new ArrayList<>();
+        String profileUrl = profileUrl(profile);
         
         try {
-            String profileUrl = INSTAGRAM_BASE_URL + profile.getUsername() + "/";
             log.info("🔍 Scraping via HTTP: @{}", profile.getUsername());
             log.info("🌐 URL: {}", profileUrl);
             
-            // Fazer requisição HTTP simples
-            String html = fetchHtmlContent(profileUrl);
+            // GET condicional: 304 ou corpo com o mesmo hash dispensam todo o parsing
+            ConditionalPageFetcher.PageResult page = pageFetcher.fetch(profileUrl, HTML_HEADERS);
+            log.info("📡 {} (HTTP {})", page.outcome(), page.httpStatus());
             
+            if (page.unchanged()) {
+                log.info("💤 Perfil @{} sem mudanças desde a última coleta", profile.getUsername());
+                return Result.of(Outcome.UNCHANGED, page.httpStatus());
+            }
+            
+            String html = page.body();
+            if (looksBlocked(page.httpStatus(), html)) {
+                log.warn("🚧 Página de bloqueio para @{} (HTTP {})", profile.getUsername(), page.httpStatus());
+                // Não guarda o hash da página de bloqueio, senão a próxima coleta a veria como "sem mudanças"
+                pageFetcher.invalidate(profileUrl);
+                return Result.of(Outcome.BLOCKED, page.httpStatus());
+            }
             if (html == null || html.isEmpty()) {
                 log.error("❌ Não foi possível obter HTML do perfil");
-                return scrapedContents;
+                pageFetcher.invalidate(profileUrl);
+                return Result.of(Outcome.FAILED, page.httpStatus());
             }
             
             log.info("📄 HTML obtido: {} caracteres", html.length());
             
-            // Analisar HTML para encontrar posts
+            // Posts do JSON embutido vêm primeiro (legenda, data, mídia e contadores);
+            // links soltos no HTML completam a lista só com o shortcode
+            List<EmbeddedPostParser.EmbeddedPost> embedded = embeddedPostParser.parse(html);
             Set<String> postUrls = extractPostUrls(html);
-            log.info("📊 URLs encontradas: {}", postUrls.size());
+            log.info("📊 Posts no JSON embutido: {}, URLs encontradas: {}", embedded.size(), postUrls.size());
             
-            // Processar URLs encontradas
-            int processedCount = 0;
+            List<Content> candidates = new ArrayList<>();
+            for (EmbeddedPostParser.EmbeddedPost post : embedded) {
+                candidates.add(post.toContent(profile));
+            }
             for (String postUrl : postUrls) {
-                if (processedCount >= MAX_POSTS_TO_SCRAPE) {
-                    break;
+                Content content = createContentFromUrl(postUrl, profile);
+                if (content != null) {
+                    candidates.add(content);
                 }
-                
-                try {
-                    Content content = createContentFromUrl(postUrl, profile);
-                    if (content != null) {
-                        scrapedContents.add(content);
-                        processedCount++;
-                        log.info("✅ Post {}: {}", processedCount, content.getExternalId());
-                    }
-                } catch (Exception e) {
-                    log.error("❌ Erro ao processar post {}: {}", postUrl, e.getMessage());
+            }
+            Set<String> seen = new HashSet<>();
+            for (Content candidate : candidates) {
+                seen.add(candidate.getExternalId());
+            }
+            
+            // Descarta em lote os posts já salvos (uma query em vez de uma por URL)
+            List<Content> fresh = contentDedupService.filterNew(candidates, Content::getExternalId);
+            log.info("🆕 Posts novos: {}", fresh.size());
+            
+            for (Content content : fresh) {
+                if (scrapedContents.size() >= MAX_POSTS_TO_SCRAPE) {
+                    break;
                 }
+                scrapedContents.add(content);
+                log.info("✅ Post {}: {}", scrapedContents.size(), content.getExternalId());
+            }
+            if (fresh.size() > MAX_POSTS_TO_SCRAPE) {
+                // Sobraram posts novos nesta página: sem esquecer o hash, a próxima coleta a veria como
+                // "sem mudanças" e eles nunca seriam lidos
+                log.info("📚 {} posts novos ficam para a próxima coleta", fresh.size() - MAX_POSTS_TO_SCRAPE);
+                pageFetcher.invalidate(profileUrl);
             }
+
+            log.info("🎯 Scraping HTTP concluído: {} posts para @{}", scrapedContents.size(), profile.getUsername());
+            return new Result(Outcome.OK, page.httpStatus(), seen.size(), scrapedContents);
             
         } catch (Exception e) {
             log.error("💥 Erro durante scraping HTTP: {}", e.getMessage());
+            // Sem isso a próxima coleta veria "sem mudanças" e nunca reprocessaria a página
+            pageFetcher.invalidate(profileUrl);
+            return Result.of(Outcome.FAILED, -1);
         }
-        
-        log.info("🎯 Scraping HTTP concluído: {} posts para @{}", scrapedContents.size(), profile.getUsername());
-        return scrapedContents;
     }
     
+    static boolean looksBlocked(int httpStatus, String html) {
+        if (httpStatus == 401 || httpStatus == 403 || httpStatus == 429) {
+            return true;
+        }
+        if (html == null) {
+            return false;
+        }
+        for (String marker : BLOCK_MARKERS) {
+            if (html.contains(marker)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // Esquece o validador da página (ex.: a leitura foi considerada ruim e o perfil foi para o browser)
+    public void invalidate(Profile profile) {
+        pageFetcher.invalidate(profileUrl(profile));
+    }
+    
+    private static String profileUrl(Profile profile) {
+        return INSTAGRAM_BASE_URL + profile.getUsername() + "/";
+    }
+    
+    // Busca incondicional (sem cache), usada pela análise de debug
     private String fetchHtmlContent(String url) {
         try {
-            URL urlObj = new URL(url);
-            HttpURLConnection connection = (HttpURLConnection) urlObj.openConnection();
-            
-            // Configurar headers para parecer um navegador real
-            connection.setRequestMethod("GET");
-            connection.setRequestProperty("User-Agent", 
-                "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36");
-            connection.setRequestProperty("Accept", 
-                "text/html,application/xhtml+xml,application/xml;q=0.9,image/webp,*/*;q=0.8");
-            connection.setRequestProperty("Accept-Language", "pt-BR,pt;q=0.8,en;q=0.6");
-            // Remover Accept-Encoding para evitar compressão
-            // connection.setRequestProperty("Accept-Encoding", "gzip, deflate, br");
-            connection.setRequestProperty("Connection", "keep-alive");
-            connection.setConnectTimeout(10000);
-            connection.setReadTimeout(15000);
-            
-            int responseCode = connection.getResponseCode();
-            log.info("📡 Response Code: {}", responseCode);
-            log.info("📡 Content-Type: {}", connection.getContentType());
-            log.info("📡 Content-Encoding: {}", connection.getContentEncoding());
-            
-            if (responseCode == 200) {
-                StringBuilder content = new StringBuilder();
-                
-                // Verificar se o conteúdo está comprimido
-                String encoding = connection.getContentEncoding();
-                java.io.InputStream inputStream = connection.getInputStream();
-                
-                if ("gzip".equalsIgnoreCase(encoding)) {
-                    inputStream = new java.util.zip.GZIPInputStream(inputStream);
-                    log.info("🗜️ Decomprimindo GZIP");
-                }
-                
-                try (BufferedReader reader = new BufferedReader(
-                        new InputStreamReader(inputStream, "UTF-8"))) {
-                    
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        content.append(line).append("\n");
-                    }
+            return httpFetcher.get(url, HTML_HEADERS, (status, headers, body) -> {
+                log.info("📡 Response Code: {}", status);
+                if (status != 200) {
+                    log.error("❌ HTTP Error: {}", status);
+                    return null;
                 }
-                return content.toString();
-            } else {
-                log.error("❌ HTTP Error: {} {}", responseCode, connection.getResponseMessage());
-                return null;
-            }
+                return HttpFetcher.readText(body, headers);
+            });
             
         } catch (Exception e) {
             log.error("💥 Erro ao fazer requisição HTTP: {}", e.getMessage(), e);
@@ -136,92 +194,11 @@ public class HttpInstagramScraper {
     }
     
     private Set<String> extractPostUrls(String html) {
-        Set<String> urls = new HashSet<>();
-        
-        try {
-            // Padrões regex para encontrar URLs de posts
-            String[] patterns = {
-                "https://www\\.instagram\\.com/p/([a-zA-Z0-9_-]+)/",
-                "https://www\\.instagram\\.com/reel/([a-zA-Z0-9_-]+)/",
-                "/p/([a-zA-Z0-9_-]+)/",
-                "/reel/([a-zA-Z0-9_-]+)/"
-            };
-            
-            for (String patternStr : patterns) {
-                Pattern pattern = Pattern.compile(patternStr);
-                Matcher matcher = pattern.matcher(html);
-                
-                while (matcher.find()) {
-                    String fullMatch = matcher.group(0);
-                    
-                    // Normalizar URL
-                    if (!fullMatch.startsWith("http")) {
-                        fullMatch = "https://www.instagram.com" + fullMatch;
-                    }
-                    
-                    // Remover trailing slash se houver
-                    if (fullMatch.endsWith("/")) {
-                        fullMatch = fullMatch.substring(0, fullMatch.length() - 1);
-                    }
-                    
-                    urls.add(fullMatch);
-                    
-                    if (urls.size() >= MAX_POSTS_TO_SCRAPE * 2) {
-                        break; // Limitar para não processar muitos
-                    }
-                }
-            }
-            
-            // Tentar encontrar JSON com dados do Instagram - vários padrões
-            String[] jsonPatterns = {
-                "window\\._sharedData\\s*=\\s*(\\{.*?\\});",
-                "window\\.__additionalDataLoaded\\([^,]+,(\\{.*?\\})\\);",
-                "\"ProfilePage\"\\s*:\\s*(\\{.*?\\})\\s*\\}\\s*\\}",
-                "\"user\"\\s*:\\s*(\\{.*?\"edge_owner_to_timeline_media\".*?\\})"
-            };
-            
-            for (String patternStr : jsonPatterns) {
-                Pattern jsonPattern = Pattern.compile(patternStr, Pattern.DOTALL);
-                Matcher jsonMatcher = jsonPattern.matcher(html);
-                
-                if (jsonMatcher.find()) {
-                    log.info("📱 Dados JSON do Instagram encontrados! Padrão: {}", patternStr.substring(0, 20));
-                    String jsonData = jsonMatcher.group(1);
-                    
-                    // Extrair shortcodes do JSON com vários padrões
-                    String[] shortcodePatterns = {
-                        "\"shortcode\"\\s*:\\s*\"([a-zA-Z0-9_-]+)\"",
-                        "\"code\"\\s*:\\s*\"([a-zA-Z0-9_-]+)\"",
-                        "/p/([a-zA-Z0-9_-]+)/",
-                        "/reel/([a-zA-Z0-9_-]+)/"
-                    };
-                    
-                    for (String scPattern : shortcodePatterns) {
-                        Pattern urlInJsonPattern = Pattern.compile(scPattern);
-                        Matcher urlMatcher = urlInJsonPattern.matcher(jsonData);
-                        
-                        while (urlMatcher.find()) {
-                            String shortcode = urlMatcher.group(1);
-                            String postUrl = "https://www.instagram.com/p/" + shortcode;
-                            urls.add(postUrl);
-                            
-                            if (urls.size() >= MAX_POSTS_TO_SCRAPE * 3) {
-                                break;
-                            }
-                        }
-                    }
-                    
-                    // Se encontrou dados, parar de procurar outros padrões
-                    if (urls.size() > 0) {
-                        break;
-                    }
-                }
-            }
-            
-        } catch (Exception e) {
-            log.error("❌ Erro ao extrair URLs: {}", e.getMessage());
+        // Uma única varredura cobre links /p/ e /reel/, barras escapadas de JSON e chaves "shortcode"
+        Set<String> urls = new LinkedHashSet<>();
+        for (ShortcodeExtractor.PostRef ref : shortcodeExtractor.extract(html, MAX_POSTS_TO_SCRAPE * 3)) {
+            urls.add(ref.url());
         }
-        
         return urls;
     }
     
@@ -229,12 +206,6 @@ public class HttpInstagramScraper {
         try {
             String shortcode = extractShortcode(postUrl);
             
-            // Verificar se já existe
-            if (contentRepository.existsByExternalId(shortcode)) {
-                log.debug("Post {} já existe", shortcode);
-                return null;
-            }
-            
             ContentType type = postUrl.contains("/reel/") ? ContentType.REEL : ContentType.POST;
             
             return Content.builder()
@@ -254,25 +225,32 @@ public class HttpInstagramScraper {
     }
     
     private String extractShortcode(String url) {
-        try {
-            Pattern pattern = Pattern.compile("/(?:p|reel)/([a-zA-Z0-9_-]+)");
-            Matcher matcher = pattern.matcher(url);
-            if (matcher.find()) {
-                return matcher.group(1);
-            }
-        } catch (Exception e) {
-            log.debug("Erro ao extrair shortcode: {}", e.getMessage());
-        }
-        
-        return String.valueOf(url.hashCode());
+        String shortcode = shortcodeExtractor.shortcodeOf(url);
+        return shortcode != null ? shortcode : String.valueOf(url.hashCode());
     }
     
+    // Uso direto (type "http"): bloqueio e falha viram erro do job em vez de "0 posts novos"
+    @Override
     public List<Content> scrapeAndSaveProfile(Profile profile) {
-        List<Content> contents = scrapeProfile(profile);
-        if (!contents.isEmpty()) {
-            return contentRepository.saveAll(contents);
+        Result result = scrapeAndSave(profile);
+        if (result.outcome() == Outcome.BLOCKED || result.outcome() == Outcome.FAILED) {
+            throw new IllegalStateException("Scraping HTTP " + result.outcome() + " (HTTP " + result.httpStatus() + ")");
+        }
+        return result.contents();
+    }
+    
+    public Result scrapeAndSave(Profile profile) {
+        Result result = scrape(profile);
+        if (!result.contents().isEmpty()) {
+            try {
+                List<Content> saved = contentDedupService.saveAll(result.contents());
+                return new Result(result.outcome(), result.httpStatus(), result.postsFound(), saved);
+            } catch (RuntimeException e) {
+                invalidate(profile);
+                throw e;
+            }
         }
-        return contents;
+        return result;
     }
     
     // Método para análise de debug
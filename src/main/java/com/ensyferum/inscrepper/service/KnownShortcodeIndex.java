@@ -0,0 +1,149 @@
+package com.ensyferum.inscrepper.service;
+
+import com.ensyferum.inscrepper.repository.ContentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bloom filter local com todos os externalIds salvos; "não contém" dispensa a ida ao banco
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KnownShortcodeIndex {
+
+    private final ContentRepository contentRepository;
+
+    @Value("${scraper.bloom.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${scraper.bloom.fpp:0.01}")
+    private double fpp = 0.01;
+
+    // Folga sobre a contagem atual para o filtro não saturar entre rebuilds
+    @Value("${scraper.bloom.growth-factor:2.0}")
+    private double growthFactor = 2.0;
+
+    @Value("${scraper.bloom.min-capacity:100000}")
+    private long minCapacity = 100_000;
+
+    @Value("${scraper.bloom.warmup-batch-size:5000}")
+    private int warmupBatchSize = 5000;
+
+    private volatile BloomFilter filter;
+    // Filtro em construção: inserções feitas durante o rebuild vão para os dois
+    private volatile BloomFilter building;
+    private volatile Instant builtAt;
+    private volatile long lastBuildMs;
+
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong definitelyNew = new AtomicLong();
+    private final Object rebuildLock = new Object();
+
+    public boolean isReady() {
+        return enabled && filter != null;
+    }
+
+    public boolean mightContain(String externalId) {
+        BloomFilter current = filter;
+        if (!enabled || current == null) {
+            return true;
+        }
+        lookups.incrementAndGet();
+        boolean maybe = current.mightContain(externalId);
+        if (!maybe) {
+            definitelyNew.incrementAndGet();
+        }
+        return maybe;
+    }
+
+    public void addAll(Collection<String> externalIds) {
+        BloomFilter current = filter;
+        BloomFilter next = building;
+        for (String externalId : externalIds) {
+            if (externalId == null) {
+                continue;
+            }
+            if (current != null) {
+                current.put(externalId);
+            }
+            if (next != null) {
+                next.put(externalId);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public BloomStats rebuild() {
+        synchronized (rebuildLock) {
+            long start = System.currentTimeMillis();
+            long total = contentRepository.count();
+            long capacity = Math.max(minCapacity, (long) Math.ceil(total * growthFactor));
+            BloomFilter next = new BloomFilter(capacity, fpp);
+            building = next;
+
+            try {
+                String after = "";
+                long loaded = 0;
+                while (true) {
+                    List<String> batch = contentRepository.findExternalIdsAfter(after, Limit.of(warmupBatchSize));
+                    if (batch.isEmpty()) {
+                        break;
+                    }
+                    batch.forEach(next::put);
+                    loaded += batch.size();
+                    after = batch.get(batch.size() - 1);
+                }
+
+                filter = next;
+                builtAt = Instant.now();
+                lastBuildMs = System.currentTimeMillis() - start;
+                log.info("🌸 Bloom filter construído: {} shortcodes, {} KB, k={}, em {}ms",
+                        loaded, next.memoryBytes() / 1024, next.hashFunctions(), lastBuildMs);
+            } finally {
+                building = null;
+            }
+            return stats();
+        }
+    }
+
+    public BloomStats stats() {
+        BloomFilter current = filter;
+        if (current == null) {
+            return new BloomStats(enabled, false, 0, 0, 0, 0, 0, fpp, 0, 0,
+                    lookups.get(), definitelyNew.get(), builtAt, lastBuildMs);
+        }
+        return new BloomStats(enabled, true,
+                current.expectedInsertions(),
+                current.insertions(),
+                current.bitCount(),
+                current.hashFunctions(),
+                current.memoryBytes(),
+                current.targetFpp(),
+                current.fillRatio(),
+                current.estimatedFpp(),
+                lookups.get(),
+                definitelyNew.get(),
+                builtAt,
+                lastBuildMs);
+    }
+
+    public record BloomStats(boolean enabled, boolean ready, long capacity, long insertions, long bits,
+                             int hashFunctions, long memoryBytes, double targetFpp, double fillRatio,
+                             double estimatedFpp, long lookups, long definitelyNew,
+                             Instant builtAt, long buildMs) {}
+}
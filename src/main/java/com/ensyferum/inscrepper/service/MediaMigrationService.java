@@ -0,0 +1,106 @@
+package com.ensyferum.inscrepper.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+// Backfill: move imagens da coluna legada contents.image_blob para o MediaStore (em lotes, pelo BackfillRunner)
+@Service
+@RequiredArgsConstructor
+public class MediaMigrationService implements Backfill {
+
+    private static final int CHUNK_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MediaStore mediaStore;
+
+    private volatile Boolean legacyColumnPresent;
+
+    @Override
+    public String name() {
+        return "media-blobs";
+    }
+
+    @Override
+    public boolean pending() {
+        return hasLegacyBlobColumn();
+    }
+
+    // Sem cursor: cada lote pega as próximas linhas que ainda têm blob
+    @Override
+    public Chunk runChunk(String cursor, int chunkSize) throws IOException {
+        int limit = Math.min(chunkSize, CHUNK_SIZE);
+        List<MigratedBlob> chunk = readBlobs("select id, image_blob, image_mime_type from contents " +
+                "where image_blob is not null fetch first " + limit + " rows only");
+        for (MigratedBlob blob : chunk) {
+            markMigrated(blob);
+        }
+        return new Chunk(chunk.size(), null, chunk.size() < limit);
+    }
+
+    // Migração sob demanda de uma linha ainda não migrada (ex.: imagem requisitada antes do job terminar)
+    public Optional<MediaStore.StoredMedia> migrateOne(UUID contentId) throws IOException {
+        if (!hasLegacyBlobColumn()) {
+            return Optional.empty();
+        }
+
+        List<MigratedBlob> migrated = readBlobs(
+                "select id, image_blob, image_mime_type from contents where id = ? and image_blob is not null",
+                contentId);
+        for (MigratedBlob blob : migrated) {
+            markMigrated(blob);
+        }
+        return migrated.stream().findFirst().map(MigratedBlob::media);
+    }
+
+    private void markMigrated(MigratedBlob blob) {
+        jdbcTemplate.update(
+                "update contents set image_hash = ?, image_size = ?, image_blob = null where id = ?",
+                blob.media().hash(), blob.media().size(), blob.id());
+    }
+
+    private List<MigratedBlob> readBlobs(String sql, Object... args) throws IOException {
+        List<MigratedBlob> blobs = new ArrayList<>();
+        try {
+            // Lê o blob como stream direto para o disco, sem copiar para o heap
+            jdbcTemplate.query(sql, rs -> {
+                try (InputStream in = rs.getBinaryStream("image_blob")) {
+                    MediaStore.StoredMedia media = mediaStore.store(in, rs.getString("image_mime_type"));
+                    blobs.add(new MigratedBlob(rs.getObject("id", UUID.class), media));
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }, args);
+        } catch (IllegalStateException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw e;
+        }
+        return blobs;
+    }
+
+    private boolean hasLegacyBlobColumn() {
+        if (legacyColumnPresent == null) {
+            legacyColumnPresent = queryLegacyBlobColumn();
+        }
+        return legacyColumnPresent;
+    }
+
+    private boolean queryLegacyBlobColumn() {
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.columns " +
+                "where lower(table_name) = 'contents' and lower(column_name) = 'image_blob'",
+                Integer.class);
+        return count != null && count > 0;
+    }
+
+    private record MigratedBlob(UUID id, MediaStore.StoredMedia media) {}
+}
@@ -0,0 +1,103 @@
+package com.ensyferum.inscrepper.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+// Armazenamento de mídia endereçado por conteúdo: <media-path>/ab/cd/<sha256>
+@Slf4j
+@Component
+public class MediaStore {
+
+    private final Path root;
+    private final Path tmpDir;
+
+    public MediaStore(@Value("${scraper.media-path:./data/media}") String mediaPath) {
+        this.root = Paths.get(mediaPath).toAbsolutePath().normalize();
+        this.tmpDir = root.resolve("tmp");
+        try {
+            Files.createDirectories(tmpDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível criar o diretório de mídia: " + root, e);
+        }
+    }
+
+    public StoredMedia store(byte[] data, String mimeType) throws IOException {
+        return store(new ByteArrayInputStream(data), mimeType);
+    }
+
+    public StoredMedia store(InputStream input, String mimeType) throws IOException {
+        // Grava em arquivo temporário calculando o hash no caminho; o nome final só é conhecido no fim
+        Path tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(tmp), digest)) {
+                size = input.transferTo(out);
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = resolve(hash);
+
+            if (Files.exists(target)) {
+                log.debug("♻️ Mídia {} já existe, reaproveitando", hash);
+            } else {
+                Files.createDirectories(target.getParent());
+                moveAtomically(tmp, target);
+                log.debug("💾 Mídia {} gravada ({} bytes)", hash, size);
+            }
+            return new StoredMedia(hash, size, mimeType);
+
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public Path resolve(String hash) {
+        if (hash == null || hash.length() < 4 || !hash.chars().allMatch(c -> Character.digit(c, 16) >= 0)) {
+            throw new IllegalArgumentException("Hash de mídia inválido: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    public boolean exists(String hash) {
+        return hash != null && Files.isRegularFile(resolve(hash));
+    }
+
+    public record StoredMedia(String hash, long size, String mimeType) {}
+
+    private void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Outro worker gravou o mesmo conteúdo ao mesmo tempo: mesmo hash, mesmo arquivo
+            log.debug("Mídia {} gravada concorrentemente", target.getFileName());
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
@@ -3,49 +3,56 @@ package com.ensyferum.inscrepper.service;
 import com.ensyferum.inscrepper.model.Content;
 import com.ensyferum.inscrepper.model.ContentType;
 import com.ensyferum.inscrepper.model.Profile;
-import com.ensyferum.inscrepper.repository.ContentRepository;
-import io.github.bonigarcia.wdm.WebDriverManager;
+import com.ensyferum.inscrepper.model.ScrapeTier;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class ModernInstagramScraper {
+public class ModernInstagramScraper implements ProfileScraper {
 
-    private final ContentRepository contentRepository;
+    private final ContentDedupService contentDedupService;
+    private final ShortcodeExtractor shortcodeExtractor;
+    private final WebDriverPool driverPool;
+    private final MediaStore mediaStore;
+    private final HttpFetcher httpFetcher;
+    private final EmbeddedPostParser embeddedPostParser;
+    private final PageReadiness pageReadiness;
     
     private static final String INSTAGRAM_BASE_URL = "https://www.instagram.com/";
     private static final int MAX_POSTS_TO_SCRAPE = 6;
     private static final int MAX_SCROLL_ATTEMPTS = 3;
 
+    @Override
+    public String type() {
+        return "modern";
+    }
+
+    @Override
+    public ScrapeTier tier() {
+        return ScrapeTier.BROWSER;
+    }
+
     public List<Content> scrapeProfile(Profile profile) {
         List<Content> scrapedContents = new ArrayList<>();
         WebDriver driver = null;
         
         try {
-            driver = createOptimizedWebDriver();
+            driver = driverPool.borrow();
             String profileUrl = INSTAGRAM_BASE_URL + profile.getUsername() + "/";
             
             log.info("🔍 Iniciando scraping do perfil: @{}", profile.getUsername());
@@ -54,15 +61,17 @@ public class ModernInstagramScraper {
             driver.get(profileUrl);
             
             // Aguardar página carregar
-            Thread.sleep(4000);
+            pageReadiness.awaitSettled(driver);
             
             // Verificar se página carregou corretamente
             String title = driver.getTitle();
             log.info("📄 Título da página: {}", title);
             
             if (title.contains("Page Not Found") || title.contains("Página não encontrada")) {
-                log.error("❌ Perfil @{} não encontrado", profile.getUsername());
-                return scrapedContents;
+                throw new IllegalStateException("Perfil @" + profile.getUsername() + " não encontrado");
+            }
+            if (HttpInstagramScraper.looksBlocked(200, driver.getPageSource())) {
+                throw new IllegalStateException("Página de bloqueio (login ou rate limit) para @" + profile.getUsername());
             }
             
             // Tentar diferentes estratégias para encontrar posts
@@ -79,15 +88,25 @@ public class ModernInstagramScraper {
             
             log.info("📊 Total de URLs únicas encontradas: {}", foundUrls.size());
             
+            // Legenda, data e imagem saem do JSON embutido na própria página do perfil,
+            // sem abrir cada post no browser
+            Map<String, EmbeddedPostParser.EmbeddedPost> embedded =
+                    embeddedPostParser.parseByShortcode(driver.getPageSource());
+            log.info("🧬 Posts no JSON embutido: {}", embedded.size());
+            
+            // Descarta em lote os posts já salvos (uma query em vez de uma por URL)
+            List<String> newUrls = contentDedupService.filterNew(foundUrls, this::extractShortcode);
+            log.info("🆕 URLs novas: {} ({} já existentes)", newUrls.size(), foundUrls.size() - newUrls.size());
+            
             // Processar as URLs encontradas
             int processedCount = 0;
-            for (String postUrl : foundUrls) {
+            for (String postUrl : newUrls) {
                 if (processedCount >= MAX_POSTS_TO_SCRAPE) {
                     break;
                 }
                 
                 try {
-                    Content content = processPostUrl(postUrl, profile, driver);
+                    Content content = processPostUrl(postUrl, profile, embedded);
                     if (content != null) {
                         scrapedContents.add(content);
                         processedCount++;
@@ -100,53 +119,18 @@ public class ModernInstagramScraper {
             
         } catch (Exception e) {
             log.error("💥 Erro durante o scraping: {}", e.getMessage(), e);
+            driverPool.invalidate(driver);
+            driver = null;
+            // Falha precisa chegar ao ScraperMetrics: lista vazia seria lida como "sem posts novos"
+            throw new IllegalStateException("Falha no scraping de @" + profile.getUsername() + ": " + e.getMessage(), e);
         } finally {
-            if (driver != null) {
-                try {
-                    driver.quit();
-                } catch (Exception e) {
-                    log.debug("Erro ao fechar driver: {}", e.getMessage());
-                }
-            }
+            driverPool.release(driver);
         }
         
         log.info("🎯 Scraping concluído: {} posts capturados para @{}", scrapedContents.size(), profile.getUsername());
         return scrapedContents;
     }
     
-    private WebDriver createOptimizedWebDriver() {
-        WebDriverManager.chromedriver().setup();
-        
-        ChromeOptions options = new ChromeOptions();
-        
-        // Configurações para melhor compatibilidade
-        options.addArguments("--headless");
-        options.addArguments("--no-sandbox");
-        options.addArguments("--disable-dev-shm-usage");
-        options.addArguments("--disable-gpu");
-        options.addArguments("--window-size=1366,768");
-        options.addArguments("--disable-web-security");
-        options.addArguments("--allow-running-insecure-content");
-        
-        // User agent realista
-        options.addArguments("--user-agent=Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36");
-        
-        // Evitar detecção de automação
-        options.addArguments("--disable-blink-features=AutomationControlled");
-        options.setExperimentalOption("excludeSwitches", new String[]{"enable-automation"});
-        options.setExperimentalOption("useAutomationExtension", false);
-        
-        WebDriver driver = new ChromeDriver(options);
-        
-        // Script para mascarar webdriver
-        ((JavascriptExecutor) driver).executeScript("Object.defineProperty(navigator, 'webdriver', {get: () => undefined})");
-        
-        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(5));
-        
-        return driver;
-    }
-    
     private Set<String> findPostsWithJavaScript(WebDriver driver) {
         Set<String> urls = new HashSet<>();
         
@@ -189,12 +173,11 @@ public class ModernInstagramScraper {
         try {
             log.info("📜 Tentando scroll e seletores CSS...");
             
-            JavascriptExecutor js = (JavascriptExecutor) driver;
+            PageReadiness.Snapshot current = pageReadiness.current(driver);
             
-            // Tentar scroll para carregar mais conteúdo
+            // Tentar scroll para carregar mais conteúdo (espera o grid crescer, não um tempo fixo)
             for (int i = 0; i < MAX_SCROLL_ATTEMPTS; i++) {
-                js.executeScript("window.scrollTo(0, document.body.scrollHeight);");
-                Thread.sleep(2000);
+                PageReadiness.Snapshot next = pageReadiness.scrollAndAwaitGrowth(driver, current);
                 
                 // Tentar diferentes seletores
                 String[] selectors = {
@@ -219,6 +202,11 @@ public class ModernInstagramScraper {
                         log.debug("Seletor {} falhou: {}", selector, e.getMessage());
                     }
                 }
+                
+                if (!next.grewFrom(current)) {
+                    break;
+                }
+                current = next;
             }
             
             log.info("🎯 Scroll e seletores encontraram {} URLs", urls.size());
@@ -234,51 +222,43 @@ public class ModernInstagramScraper {
         Set<String> urls = new HashSet<>();
         
         try {
-            log.info("🔍 Analisando HTML com regex...");
+            log.info("🔍 Analisando HTML...");
             
             String pageSource = driver.getPageSource();
-            
-            // Pattern para encontrar URLs de posts no HTML
-            Pattern pattern = Pattern.compile("https://www\\.instagram\\.com/(?:p|reel)/([a-zA-Z0-9_-]+)/?");
-            Matcher matcher = pattern.matcher(pageSource);
-            
-            while (matcher.find()) {
-                urls.add(matcher.group());
+            for (ShortcodeExtractor.PostRef ref : shortcodeExtractor.extract(pageSource)) {
+                urls.add(ref.url());
             }
             
-            log.info("🧩 Regex encontrou {} URLs", urls.size());
+            log.info("🧩 Varredura do HTML encontrou {} URLs", urls.size());
             
         } catch (Exception e) {
-            log.debug("Erro no regex: {}", e.getMessage());
+            log.debug("Erro na varredura do HTML: {}", e.getMessage());
         }
         
         return urls;
     }
     
-    private Content processPostUrl(String postUrl, Profile profile, WebDriver driver) {
+    private Content processPostUrl(String postUrl, Profile profile,
+                                   Map<String, EmbeddedPostParser.EmbeddedPost> embedded) {
         try {
             String shortcode = extractShortcode(postUrl);
             
-            // Verificar se já existe
-            if (contentRepository.existsByExternalId(shortcode)) {
-                log.debug("Post {} já existe no banco", shortcode);
-                return null;
-            }
-            
-            // Tentar extrair informações da imagem
-            String imageUrl = findImageUrl(postUrl, driver);
-            
             Content content = Content.builder()
                     .profile(profile)
                     .externalId(shortcode)
                     .url(postUrl)
-                    .mediaUrl(imageUrl)
-                    .caption("") // Por enquanto vazio, pode ser melhorado
+                    .caption("")
                     .type(postUrl.contains("/reel/") ? ContentType.REEL : ContentType.POST)
                     .collectedAt(Instant.now())
                     .build();
             
+            EmbeddedPostParser.EmbeddedPost post = embedded.get(shortcode);
+            if (post != null) {
+                post.applyTo(content);
+            }
+            
             // Tentar baixar imagem se encontrada
+            String imageUrl = content.getMediaUrl();
             if (imageUrl != null && !imageUrl.isEmpty()) {
                 downloadAndSaveImage(content, imageUrl);
             }
@@ -292,58 +272,36 @@ public class ModernInstagramScraper {
     }
     
     private String extractShortcode(String url) {
-        try {
-            Pattern pattern = Pattern.compile("/(?:p|reel)/([a-zA-Z0-9_-]+)");
-            Matcher matcher = pattern.matcher(url);
-            if (matcher.find()) {
-                return matcher.group(1);
-            }
-        } catch (Exception e) {
-            log.debug("Erro ao extrair shortcode de {}: {}", url, e.getMessage());
-        }
-        
+        String shortcode = shortcodeExtractor.shortcodeOf(url);
         // Fallback
-        return String.valueOf(url.hashCode());
-    }
-    
-    private String findImageUrl(String postUrl, WebDriver driver) {
-        // Por enquanto, retornar null - pode ser implementado navegando para o post
-        // ou tentando encontrar a imagem na página atual
-        return null;
+        return shortcode != null ? shortcode : String.valueOf(url.hashCode());
     }
     
     private void downloadAndSaveImage(Content content, String imageUrl) {
         try {
-            URL url = new URL(imageUrl);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestProperty("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
-            connection.setConnectTimeout(5000);
-            connection.setReadTimeout(10000);
-            
-            try (InputStream inputStream = connection.getInputStream();
-                 ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-                
-                byte[] buffer = new byte[8192];
-                int bytesRead;
-                while ((bytesRead = inputStream.read(buffer)) != -1) {
-                    outputStream.write(buffer, 0, bytesRead);
+            // Grava direto no MediaStore, sem materializar a imagem em memória
+            MediaStore.StoredMedia media = httpFetcher.get(imageUrl, (status, headers, body) -> {
+                if (status != 200) {
+                    throw new IOException("HTTP " + status);
                 }
-                
-                content.setImageBlob(outputStream.toByteArray());
-                content.setImageMimeType(connection.getContentType());
-                
-                log.debug("Imagem baixada: {} bytes", outputStream.size());
-                
-            }
+                return mediaStore.store(body, headers.firstValue("Content-Type").orElse(null));
+            });
+            
+            content.setImageHash(media.hash());
+            content.setImageSize(media.size());
+            content.setImageMimeType(media.mimeType());
+            
+            log.debug("Imagem baixada: {} bytes ({})", media.size(), media.hash());
         } catch (IOException e) {
             log.debug("Erro ao baixar imagem: {}", e.getMessage());
         }
     }
     
+    @Override
     public List<Content> scrapeAndSaveProfile(Profile profile) {
         List<Content> contents = scrapeProfile(profile);
         if (!contents.isEmpty()) {
-            return contentRepository.saveAll(contents);
+            return contentDedupService.saveAll(contents);
         }
         return contents;
     }
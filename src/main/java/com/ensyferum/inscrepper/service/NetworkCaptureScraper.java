@@ -0,0 +1,108 @@
+package com.ensyferum.inscrepper.service;
+
+import com.ensyferum.inscrepper.model.Content;
+import com.ensyferum.inscrepper.model.Profile;
+import com.ensyferum.inscrepper.model.ScrapeTier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Browser só para carregar e rolar a página: os posts vêm dos JSONs que a própria página busca
+// (capturados via DevTools), sem findElements nem getPageSource()
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NetworkCaptureScraper implements ProfileScraper {
+
+    private final WebDriverPool driverPool;
+    private final NetworkResponseCapture networkCapture;
+    private final ContentDedupService contentDedupService;
+
+    private static final String INSTAGRAM_BASE_URL = "https://www.instagram.com/";
+    private static final Duration FIRST_PAYLOAD_TIMEOUT = Duration.ofSeconds(15);
+    private static final Duration SCROLL_PAYLOAD_TIMEOUT = Duration.ofSeconds(4);
+
+    @Value("${scraper.max-posts:50}")
+    private int maxPosts = 50;
+
+    @Value("${scraper.browser.capture.scrolls:3}")
+    private int scrolls = 3;
+
+    @Override
+    public String type() {
+        return "network";
+    }
+
+    @Override
+    public ScrapeTier tier() {
+        return ScrapeTier.BROWSER;
+    }
+
+    public List<Content> scrapeProfile(Profile profile) {
+        String profileUrl = INSTAGRAM_BASE_URL + profile.getUsername() + "/";
+        List<EmbeddedPostParser.EmbeddedPost> posts;
+
+        WebDriver driver = driverPool.borrow();
+        boolean healthy = false;
+        try (NetworkResponseCapture.Capture capture = networkCapture.begin(driver)) {
+            if (!capture.listening()) {
+                // A sessão funciona, só não tem DevTools: volta para o pool em vez de ser descartada
+                healthy = true;
+                throw new IllegalStateException("Sessão sem DevTools: captura de rede indisponível");
+            }
+
+            log.info("🛰️ Capturando rede de @{}", profile.getUsername());
+            driver.get(profileUrl);
+            int found = capture.awaitPosts(1, FIRST_PAYLOAD_TIMEOUT);
+            log.info("📦 {} posts após o carregamento", found);
+
+            // Cada rolagem dispara a próxima página do grid (graphql) e a captura pega o JSON
+            JavascriptExecutor js = (JavascriptExecutor) driver;
+            for (int i = 0; i < scrolls && found > 0 && found < maxPosts; i++) {
+                js.executeScript("window.scrollTo(0, document.body.scrollHeight);");
+                int now = capture.awaitPosts(found + 1, SCROLL_PAYLOAD_TIMEOUT);
+                if (now == found) {
+                    break;
+                }
+                found = now;
+            }
+            posts = capture.posts();
+            healthy = true;
+        } finally {
+            if (healthy) {
+                driverPool.release(driver);
+            } else {
+                driverPool.invalidate(driver);
+            }
+        }
+
+        List<Content> candidates = new ArrayList<>();
+        for (EmbeddedPostParser.EmbeddedPost post : posts) {
+            candidates.add(post.toContent(profile));
+        }
+        List<Content> fresh = contentDedupService.filterNew(candidates, Content::getExternalId);
+        if (fresh.size() > maxPosts) {
+            fresh = new ArrayList<>(fresh.subList(0, maxPosts));
+        }
+
+        log.info("🎯 Captura de rede concluída: {} posts vistos, {} novos para @{}",
+                posts.size(), fresh.size(), profile.getUsername());
+        return fresh;
+    }
+
+    @Override
+    public List<Content> scrapeAndSaveProfile(Profile profile) {
+        List<Content> contents = scrapeProfile(profile);
+        if (!contents.isEmpty()) {
+            return contentDedupService.saveAll(contents);
+        }
+        return contents;
+    }
+}
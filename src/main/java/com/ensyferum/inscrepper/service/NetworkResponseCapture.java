@@ -0,0 +1,274 @@
+package com.ensyferum.inscrepper.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Escuta as respostas de rede da sessão Chrome (documento e XHR/fetch em JSON) e passa cada corpo
+// pelo EmbeddedPostParser: os posts chegam estruturados sem nenhum getPageSource()
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NetworkResponseCapture {
+
+    private final EmbeddedPostParser embeddedPostParser;
+
+    // Listeners ficam registrados uma vez por sessão; só entregam algo enquanto houver captura ativa
+    private final Map<WebDriver, Requests> installed = new ConcurrentHashMap<>();
+    private final Map<WebDriver, Capture> active = new ConcurrentHashMap<>();
+
+    // Métricas
+    private final AtomicLong responsesSeen = new AtomicLong();
+    private final AtomicLong bodiesParsed = new AtomicLong();
+    private final AtomicLong bodyBytes = new AtomicLong();
+    private final AtomicLong postsCaptured = new AtomicLong();
+    private final AtomicLong bodyErrors = new AtomicLong();
+
+    // Chamado pelo WebDriverPool ao criar a sessão
+    public void install(WebDriver driver) {
+        if (!(driver instanceof HasDevTools hasDevTools)) {
+            return;
+        }
+        try {
+            DevTools devTools = hasDevTools.getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+
+            Requests requests = new Requests();
+
+            // Os eventos CDP chegam por um executor: o loadingFinished pode ser entregue antes do
+            // responseReceived do mesmo requestId. O corpo é lido no segundo dos dois, seja qual for.
+            devTools.addListener(new Event<>("Network.responseReceived", input -> input.read(Json.MAP_TYPE)),
+                    (Map<String, Object> event) -> {
+                        if (!active.containsKey(driver) || !(event.get("response") instanceof Map<?, ?> response)) {
+                            return;
+                        }
+                        responsesSeen.incrementAndGet();
+                        String requestId = String.valueOf(event.get("requestId"));
+                        String url = String.valueOf(response.get("url"));
+                        String mimeType = String.valueOf(response.get("mimeType"));
+                        boolean wanted = wanted(String.valueOf(event.get("type")), url, mimeType);
+                        if (requests.received(requestId, url, wanted)) {
+                            readBody(devTools, requestId, url, driver);
+                        }
+                    });
+            // O corpo só pode ser pedido depois do loadingFinished, e some numa navegação seguinte
+            devTools.addListener(new Event<>("Network.loadingFinished", input -> input.read(Json.MAP_TYPE)),
+                    (Map<String, Object> event) -> {
+                        if (!active.containsKey(driver)) {
+                            return;
+                        }
+                        String requestId = String.valueOf(event.get("requestId"));
+                        String url = requests.finished(requestId);
+                        if (url != null) {
+                            readBody(devTools, requestId, url, driver);
+                        }
+                    });
+            devTools.addListener(new Event<>("Network.loadingFailed", input -> input.read(Json.MAP_TYPE)),
+                    (Map<String, Object> event) -> requests.failed(String.valueOf(event.get("requestId"))));
+
+            devTools.send(new Command<>("Network.enable", Map.of()));
+            installed.put(driver, requests);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Captura de rede indisponível nesta sessão: {}", e.getMessage());
+        }
+    }
+
+    // Chamado pelo WebDriverPool ao descartar a sessão
+    public void forget(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        installed.remove(driver);
+        active.remove(driver);
+    }
+
+    public Capture begin(WebDriver driver) {
+        Capture capture = new Capture(driver, driver == null ? null : installed.get(driver));
+        if (capture.listening) {
+            active.put(driver, capture);
+        }
+        return capture;
+    }
+
+    private void readBody(DevTools devTools, String requestId, String url, WebDriver driver) {
+        Capture capture = active.get(driver);
+        if (capture == null) {
+            return;
+        }
+        try {
+            Map<String, Object> result = devTools.send(new Command<>("Network.getResponseBody",
+                    Map.of("requestId", requestId), input -> input.read(Json.MAP_TYPE)));
+            String body = String.valueOf(result.get("body"));
+            if (Boolean.TRUE.equals(result.get("base64Encoded"))) {
+                body = new String(Base64.getDecoder().decode(body), StandardCharsets.UTF_8);
+            }
+            bodiesParsed.incrementAndGet();
+            bodyBytes.addAndGet(body.length());
+
+            List<EmbeddedPostParser.EmbeddedPost> posts = embeddedPostParser.parse(body);
+            int added = capture.add(posts);
+            postsCaptured.addAndGet(added);
+            if (!posts.isEmpty()) {
+                log.debug("🛰️ {} posts ({} novos na captura) em {}", posts.size(), added, url);
+            }
+        } catch (RuntimeException e) {
+            bodyErrors.incrementAndGet();
+            log.debug("Corpo indisponível para {}: {}", url, e.getMessage());
+        }
+    }
+
+    // Documento HTML (JSON embutido) e chamadas XHR/fetch que devolvem JSON (graphql, api/v1)
+    static boolean wanted(String resourceType, String url, String mimeType) {
+        String mime = mimeType == null ? "" : mimeType.toLowerCase();
+        return switch (resourceType) {
+            case "Document" -> mime.contains("html");
+            case "XHR", "Fetch" -> mime.contains("json") || mime.contains("javascript")
+                    || url.contains("/graphql") || url.contains("/api/v1/");
+            default -> false;
+        };
+    }
+
+    public CaptureStats stats() {
+        return new CaptureStats(installed.size(), active.size(), responsesSeen.get(), bodiesParsed.get(),
+                bodyBytes.get(), postsCaptured.get(), bodyErrors.get());
+    }
+
+    public record CaptureStats(int sessions, int activeCaptures, long responsesSeen, long bodiesParsed,
+                               long bodyChars, long postsCaptured, long bodyErrors) {}
+
+    // Pareamento responseReceived/loadingFinished de uma sessão, em qualquer ordem de chegada.
+    // Fechar a captura limpa tudo: requisições sem um dos dois eventos não ficam acumuladas.
+    static final class Requests {
+        // Teto de loadingFinished à espera do responseReceived (a maioria é de recurso que não interessa)
+        static final int MAX_EARLY_FINISHED = 512;
+
+        // requestId -> URL das respostas que interessam, até o corpo terminar de chegar
+        private final Map<String, String> pending = new HashMap<>();
+        // loadingFinished que chegaram antes do responseReceived, na ordem de chegada
+        private final Set<String> finishedEarly = new LinkedHashSet<>();
+
+        // true quando o corpo já terminou de chegar e deve ser lido agora
+        synchronized boolean received(String requestId, String url, boolean wanted) {
+            if (finishedEarly.remove(requestId)) {
+                return wanted;
+            }
+            if (wanted) {
+                pending.put(requestId, url);
+            }
+            return false;
+        }
+
+        // URL a ler agora, ou null se a resposta não interessa ou ainda não foi vista
+        synchronized String finished(String requestId) {
+            String url = pending.remove(requestId);
+            if (url == null) {
+                finishedEarly.add(requestId);
+                if (finishedEarly.size() > MAX_EARLY_FINISHED) {
+                    Iterator<String> oldest = finishedEarly.iterator();
+                    oldest.next();
+                    oldest.remove();
+                }
+            }
+            return url;
+        }
+
+        synchronized void failed(String requestId) {
+            pending.remove(requestId);
+            finishedEarly.remove(requestId);
+        }
+
+        synchronized void clear() {
+            pending.clear();
+            finishedEarly.clear();
+        }
+
+        synchronized int size() {
+            return pending.size() + finishedEarly.size();
+        }
+    }
+
+    // Posts recebidos enquanto a captura está aberta; fechar desliga a entrega para essa sessão
+    public final class Capture implements AutoCloseable {
+        private final WebDriver driver;
+        private final Requests requests;
+        private final boolean listening;
+        private final Map<String, EmbeddedPostParser.EmbeddedPost> posts = new LinkedHashMap<>();
+
+        private Capture(WebDriver driver, Requests requests) {
+            this.driver = driver;
+            this.requests = requests;
+            this.listening = requests != null;
+        }
+
+        // false quando a sessão não tem DevTools: o chamador deve cair para o DOM
+        public boolean listening() {
+            return listening;
+        }
+
+        synchronized int add(List<EmbeddedPostParser.EmbeddedPost> found) {
+            int before = posts.size();
+            for (EmbeddedPostParser.EmbeddedPost post : found) {
+                posts.merge(post.shortcode(), post, EmbeddedPostParser.EmbeddedPost::merge);
+            }
+            notifyAll();
+            return posts.size() - before;
+        }
+
+        public synchronized int size() {
+            return posts.size();
+        }
+
+        public synchronized List<EmbeddedPostParser.EmbeddedPost> posts() {
+            return new ArrayList<>(posts.values());
+        }
+
+        public synchronized Map<String, EmbeddedPostParser.EmbeddedPost> byShortcode() {
+            return new LinkedHashMap<>(posts);
+        }
+
+        // Espera até haver pelo menos minPosts (ou o tempo acabar); devolve o total atual
+        public synchronized int awaitPosts(int minPosts, Duration timeout) {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            while (listening && posts.size() < minPosts) {
+                long remainingMs = (deadline - System.nanoTime()) / 1_000_000;
+                if (remainingMs <= 0) {
+                    break;
+                }
+                try {
+                    wait(remainingMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            return posts.size();
+        }
+
+        @Override
+        public void close() {
+            if (listening && active.remove(driver, this)) {
+                requests.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.ensyferum.inscrepper.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Espera por condições observáveis em vez de sleeps fixos: documento completo, nº de links de posts,
+// scrollHeight e nº de recursos carregados (proxy de rede ociosa) sem mudar durante um período de silêncio.
+// Os timeouts são só tetos; em página rápida a espera termina assim que ela estabiliza.
+@Slf4j
+@Component
+public class PageReadiness {
+
+    // Uma ida ao browser por poll: tudo que decide a prontidão vem num único executeScript
+    private static final String PROBE_SCRIPT = """
+            return [document.readyState,
+                    document.querySelectorAll("a[href*='/p/'], a[href*='/reel/']").length,
+                    document.body ? document.body.scrollHeight : 0,
+                    performance.getEntriesByType('resource').length];""";
+
+    private final Duration timeout;
+    private final Duration scrollTimeout;
+    private final Duration pollInterval;
+    private final Duration quietPeriod;
+    private final int maxScrolls;
+
+    // Métricas
+    private final AtomicLong waits = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong waitedMs = new AtomicLong();
+    private final AtomicLong maxWaitMs = new AtomicLong();
+
+    public PageReadiness(@Value("${scraper.browser.ready.timeout:PT10S}") Duration timeout,
+                         @Value("${scraper.browser.ready.scroll-timeout:PT5S}") Duration scrollTimeout,
+                         @Value("${scraper.browser.ready.poll-interval:PT0.25S}") Duration pollInterval,
+                         @Value("${scraper.browser.ready.quiet-period:PT0.75S}") Duration quietPeriod,
+                         @Value("${scraper.browser.ready.max-scrolls:3}") int maxScrolls) {
+        this.timeout = timeout;
+        this.scrollTimeout = scrollTimeout;
+        this.pollInterval = pollInterval;
+        this.quietPeriod = quietPeriod;
+        this.maxScrolls = Math.max(0, maxScrolls);
+    }
+
+    // Após driver.get(): documento completo e grid parado (sem novos links, altura ou requests)
+    public Snapshot awaitSettled(WebDriver driver) {
+        return await(() -> probe(driver), s -> true, timeout);
+    }
+
+    // Estado atual, sem esperar
+    public Snapshot current(WebDriver driver) {
+        return probe(driver);
+    }
+
+    // Rola até o fim e espera o grid crescer e estabilizar; se nada crescer até o teto, devolve o estado atual
+    public Snapshot scrollAndAwaitGrowth(WebDriver driver, Snapshot before) {
+        if (driver instanceof JavascriptExecutor js) {
+            js.executeScript("window.scrollTo(0, document.body.scrollHeight);");
+        }
+        return await(() -> probe(driver), s -> s.grewFrom(before), scrollTimeout);
+    }
+
+    // Rolagens sucessivas até o grid parar de crescer ou atingir max-scrolls
+    public Snapshot scrollUntilExhausted(WebDriver driver, Snapshot start) {
+        Snapshot current = start;
+        for (int i = 0; i < maxScrolls; i++) {
+            Snapshot next = scrollAndAwaitGrowth(driver, current);
+            if (!next.grewFrom(current)) {
+                log.debug("📜 Grid parou de crescer após {} rolagens ({} links)", i, next.anchors());
+                return next;
+            }
+            current = next;
+        }
+        return current;
+    }
+
+    public int maxScrolls() {
+        return maxScrolls;
+    }
+
+    Snapshot await(Supplier<Snapshot> probe, Predicate<Snapshot> started, Duration limit) {
+        long begin = System.nanoTime();
+        long deadline = begin + limit.toNanos();
+        Snapshot last = probe.get();
+        boolean hasStarted = started.test(last);
+        long quietSince = begin;
+        boolean settled = false;
+
+        while (true) {
+            long now = System.nanoTime();
+            if (hasStarted && last.complete() && now - quietSince >= quietPeriod.toNanos()) {
+                settled = true;
+                break;
+            }
+            if (now >= deadline) {
+                break;
+            }
+            if (!sleep(Math.min(pollInterval.toNanos(), deadline - now))) {
+                break;
+            }
+            Snapshot next = probe.get();
+            if (!next.equals(last)) {
+                quietSince = System.nanoTime();
+            }
+            hasStarted = hasStarted || started.test(next);
+            last = next;
+        }
+
+        long elapsedMs = (System.nanoTime() - begin) / 1_000_000;
+        waits.incrementAndGet();
+        waitedMs.addAndGet(elapsedMs);
+        maxWaitMs.accumulateAndGet(elapsedMs, Math::max);
+        if (!settled) {
+            timeouts.incrementAndGet();
+            log.debug("⏱️ Página não estabilizou em {} ms: {}", elapsedMs, last);
+        }
+        return last;
+    }
+
+    private static Snapshot probe(WebDriver driver) {
+        if (!(driver instanceof JavascriptExecutor js)) {
+            return Snapshot.EMPTY;
+        }
+        try {
+            if (js.executeScript(PROBE_SCRIPT) instanceof List<?> values && values.size() == 4) {
+                return new Snapshot("complete".equals(values.get(0)), number(values.get(1)),
+                        number(values.get(2)), number(values.get(3)));
+            }
+        } catch (RuntimeException e) {
+            // Navegação em curso derruba o contexto do script; o próximo poll tenta de novo
+            log.trace("Probe de prontidão falhou: {}", e.getMessage());
+        }
+        return Snapshot.LOADING;
+    }
+
+    private static long number(Object value) {
+        return value instanceof Number n ? n.longValue() : 0;
+    }
+
+    private static boolean sleep(long nanos) {
+        try {
+            Thread.sleep(Math.max(1, nanos / 1_000_000));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public ReadinessStats stats() {
+        long count = waits.get();
+        return new ReadinessStats(count, timeouts.get(), count == 0 ? 0 : waitedMs.get() / count, maxWaitMs.get());
+    }
+
+    public record Snapshot(boolean complete, long anchors, long scrollHeight, long resources) {
+        // Sem JavascriptExecutor não há o que esperar
+        static final Snapshot EMPTY = new Snapshot(true, 0, 0, 0);
+        static final Snapshot LOADING = new Snapshot(false, 0, 0, 0);
+
+        public boolean grewFrom(Snapshot before) {
+            return anchors > before.anchors || scrollHeight > before.scrollHeight;
+        }
+    }
+
+    public record ReadinessStats(long waits, long timeouts, long avgWaitMs, long maxWaitMs) {}
+}
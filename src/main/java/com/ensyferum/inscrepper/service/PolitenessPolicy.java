@@ -0,0 +1,74 @@
+package com.ensyferum.inscrepper.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Jitter deliberado entre ações no browser, separado da espera por prontidão (PageReadiness):
+// aqui o atraso é escolha de cortesia com o site, não palpite de quanto a página demora
+@Component
+public class PolitenessPolicy {
+
+    private final boolean enabled;
+    private final Duration pauseMin;
+    private final Duration pauseMax;
+    private final Duration retryMin;
+    private final Duration retryMax;
+
+    // Métricas
+    private final AtomicLong pauses = new AtomicLong();
+    private final AtomicLong sleptMs = new AtomicLong();
+
+    public PolitenessPolicy(@Value("${scraper.politeness.enabled:true}") boolean enabled,
+                            @Value("${scraper.politeness.pause-min:PT0.5S}") Duration pauseMin,
+                            @Value("${scraper.politeness.pause-max:PT1.5S}") Duration pauseMax,
+                            @Value("${scraper.politeness.retry-min:PT3S}") Duration retryMin,
+                            @Value("${scraper.politeness.retry-max:PT8S}") Duration retryMax) {
+        this.enabled = enabled;
+        this.pauseMin = pauseMin;
+        this.pauseMax = pauseMax;
+        this.retryMin = retryMin;
+        this.retryMax = retryMax;
+    }
+
+    // Entre interações (clique, nova navegação)
+    public void pause() {
+        sleep(nextDelayMs(pauseMin, pauseMax));
+    }
+
+    // Antes de repetir uma tentativa que falhou
+    public void beforeRetry() {
+        sleep(nextDelayMs(retryMin, retryMax));
+    }
+
+    long nextDelayMs(Duration min, Duration max) {
+        if (!enabled) {
+            return 0;
+        }
+        long low = min.toMillis();
+        long high = Math.max(low, max.toMillis());
+        return ThreadLocalRandom.current().nextLong(low, high + 1);
+    }
+
+    private void sleep(long delayMs) {
+        if (delayMs <= 0) {
+            return;
+        }
+        pauses.incrementAndGet();
+        sleptMs.addAndGet(delayMs);
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public PolitenessStats stats() {
+        return new PolitenessStats(enabled, pauses.get(), sleptMs.get());
+    }
+
+    public record PolitenessStats(boolean enabled, long pauses, long sleptMs) {}
+}
@@ -0,0 +1,25 @@
+package com.ensyferum.inscrepper.service;
+
+import com.ensyferum.inscrepper.model.Content;
+import com.ensyferum.inscrepper.model.Profile;
+import com.ensyferum.inscrepper.model.ScrapeTier;
+
+import java.util.List;
+
+// Estratégia de coleta de um perfil; o ProfileScraperRegistry escolhe pelo "type" do job
+public interface ProfileScraper {
+
+    // Nome usado no parâmetro "type" (ex.: "http", "enhanced")
+    String type();
+
+    // Camada de custo: HTTP puro ou browser
+    ScrapeTier tier();
+
+    // Coleta e grava os posts novos, devolvendo só o que foi salvo
+    List<Content> scrapeAndSaveProfile(Profile profile);
+
+    // Estratégias que só combinam outras (ex.: "auto") ficam fora do roteamento por custo
+    default boolean composite() {
+        return false;
+    }
+}
@@ -0,0 +1,108 @@
+package com.ensyferum.inscrepper.service;
+
+import com.ensyferum.inscrepper.model.Content;
+import com.ensyferum.inscrepper.model.Profile;
+import com.ensyferum.inscrepper.model.ScrapeTier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Todas as estratégias de coleta por nome; toda execução passa pelo ScraperMetrics
+@Slf4j
+@Component
+public class ProfileScraperRegistry {
+
+    private final Map<String, ProfileScraper> scrapers = new LinkedHashMap<>();
+    private final ScraperMetrics metrics;
+    private final double yieldTarget;
+    private final double maxFailureRate;
+    private final int minRuns;
+    private final int exploreEvery;
+    private final AtomicLong routed = new AtomicLong();
+
+    public ProfileScraperRegistry(List<ProfileScraper> scrapers, ScraperMetrics metrics,
+                                  @Value("${scraper.routing.yield-target:0.1}") double yieldTarget,
+                                  @Value("${scraper.routing.max-failure-rate:0.3}") double maxFailureRate,
+                                  @Value("${scraper.routing.min-runs:5}") int minRuns,
+                                  @Value("${scraper.routing.explore-every:10}") int exploreEvery) {
+        for (ProfileScraper scraper : scrapers) {
+            ProfileScraper previous = this.scrapers.put(scraper.type(), scraper);
+            if (previous != null) {
+                throw new IllegalStateException("Estratégia duplicada: " + scraper.type());
+            }
+        }
+        this.metrics = metrics;
+        this.yieldTarget = yieldTarget;
+        this.maxFailureRate = maxFailureRate;
+        this.minRuns = Math.max(1, minRuns);
+        this.exploreEvery = Math.max(0, exploreEvery);
+        log.info("🧰 Estratégias de scraping: {}", this.scrapers.keySet());
+    }
+
+    public boolean supports(String type) {
+        return scrapers.containsKey(type);
+    }
+
+    public List<String> types() {
+        return new ArrayList<>(scrapers.keySet());
+    }
+
+    public ProfileScraper get(String type) {
+        ProfileScraper scraper = scrapers.get(type);
+        if (scraper == null) {
+            throw new IllegalArgumentException("Estratégia de scraping desconhecida: " + type
+                    + " (disponíveis: " + scrapers.keySet() + ")");
+        }
+        return scraper;
+    }
+
+    public List<Content> scrape(String type, Profile profile) {
+        ProfileScraper scraper = get(type);
+        return metrics.measure(scraper.type(), () -> scraper.scrapeAndSaveProfile(profile));
+    }
+
+    // A estratégia mais rápida da camada que já provou render o suficiente sem falhar demais;
+    // vazio enquanto nenhuma tiver execuções suficientes para comparar
+    public Optional<ProfileScraper> cheapest(ScrapeTier tier) {
+        return scrapers.values().stream()
+                .filter(s -> s.tier() == tier && !s.composite())
+                .map(s -> Map.entry(s, metrics.stats(s.type())))
+                .filter(e -> meetsTarget(e.getValue()))
+                .min(Comparator.comparingLong(e -> e.getValue().avgLatencyMs()))
+                .map(Map.Entry::getKey);
+    }
+
+    // Estratégia para a próxima execução da camada: a mais barata que cumpre a meta (ou fallback).
+    // A cada exploreEvery escolhas vai a de menos execuções entre as outras: sem isso só a escolhida
+    // acumula números e as demais nunca chegam ao min-runs para concorrer
+    public String route(ScrapeTier tier, String fallback) {
+        String best = cheapest(tier).map(ProfileScraper::type).orElse(fallback);
+        if (exploreEvery == 0 || routed.incrementAndGet() % exploreEvery != 0) {
+            return best;
+        }
+        Optional<String> explore = scrapers.values().stream()
+                .filter(s -> s.tier() == tier && !s.composite() && !s.type().equals(best))
+                .min(Comparator.comparingLong(s -> metrics.stats(s.type()).runs()))
+                .map(ProfileScraper::type);
+        explore.ifPresent(type -> log.info("🧭 Roteamento explorando {} no lugar de {}", type, best));
+        return explore.orElse(best);
+    }
+
+    private boolean meetsTarget(ScraperMetrics.StrategyStats stats) {
+        return stats.runs() >= minRuns
+                && stats.failureRate() <= maxFailureRate
+                && stats.postsPerRun() >= yieldTarget;
+    }
+
+    public List<ScraperMetrics.StrategyStats> stats() {
+        return metrics.stats(types());
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -20,7 +21,7 @@ import java.util.UUID;
 public class ProfileService {
 
     private final ProfileRepository profileRepository;
-    private final EnhancedInstagramScraper enhancedScraper;
+    private final ProfileScraperRegistry scraperRegistry;
 
     public List<Profile> listAll() {
         return profileRepository.findAll();
@@ -62,7 +63,11 @@ public class ProfileService {
     }
     
     public List<Content> scrapeProfile(UUID profileId) {
-        log.info("🚀 Iniciando scraping enhanced para perfil ID: {}", profileId);
+        return scrapeProfile(profileId, "auto");
+    }
+    
+    public List<Content> scrapeProfile(UUID profileId, String type) {
+        log.info("🚀 Iniciando scraping {} para perfil ID: {}", type, profileId);
         
         Optional<Profile> profileOpt = findById(profileId);
         if (profileOpt.isEmpty()) {
@@ -72,8 +77,10 @@ public class ProfileService {
         Profile profile = profileOpt.get();
         
         try {
-            List<Content> results = enhancedScraper.scrapeAndSaveProfile(profile);
-            log.info("✅ Scraping concluído para @{}: {} posts", profile.getUsername(), results.size());
+            // auto: HTTP primeiro, browser só quando necessário
+            List<Content> results = scraperRegistry.scrape(type, profile);
+            profileRepository.markScraped(profile.getId(), Instant.now());
+            log.info("✅ Scraping {} concluído para @{}: {} posts", type, profile.getUsername(), results.size());
             return results;
         } catch (Exception e) {
             log.error("❌ Erro no scraping para @{}: {}", profile.getUsername(), e.getMessage());
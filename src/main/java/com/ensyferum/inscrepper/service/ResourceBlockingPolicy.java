@@ -0,0 +1,184 @@
+package com.ensyferum.inscrepper.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Corta no próprio Chrome o que os scrapers não usam (vídeo, fontes, imagens, rastreadores).
+// Usa comandos CDP "crus" (Network/Fetch), sem depender das classes geradas para cada versão do Chrome.
+@Slf4j
+@Component
+public class ResourceBlockingPolicy {
+
+    private final boolean enabled;
+    private final List<String> blockedTypes;
+    private final List<String> urlPatterns;
+
+    // Métricas (somadas de todas as sessões do pool)
+    private final AtomicLong sessions = new AtomicLong();
+    private final AtomicLong sessionsWithoutCounters = new AtomicLong();
+    private final AtomicLong allowed = new AtomicLong();
+    private final AtomicLong blockedByType = new AtomicLong();
+    private final AtomicLong blockedByUrl = new AtomicLong();
+    private final AtomicLong bytesAllowed = new AtomicLong();
+    private final AtomicLong interceptErrors = new AtomicLong();
+
+    public ResourceBlockingPolicy(@Value("${scraper.browser.block.enabled:true}") boolean enabled,
+                                  @Value("${scraper.browser.block.resource-types:Media,Font,Image}") List<String> blockedTypes,
+                                  @Value("${scraper.browser.block.url-patterns:}") List<String> urlPatterns) {
+        this.enabled = enabled;
+        this.blockedTypes = normalizeTypes(blockedTypes);
+        this.urlPatterns = clean(urlPatterns);
+        log.info("🧱 Bloqueio de recursos no Chrome: {} (tipos={}, padrões de URL={})",
+                enabled ? "ativo" : "desligado", this.blockedTypes, this.urlPatterns.size());
+    }
+
+    // Chamado pelo WebDriverPool uma vez por sessão; os listeners vivem enquanto o browser viver
+    public void apply(WebDriver driver) {
+        if (!enabled || (blockedTypes.isEmpty() && urlPatterns.isEmpty())) {
+            return;
+        }
+        try {
+            if (driver instanceof HasDevTools hasDevTools) {
+                applyWithDevTools(hasDevTools.getDevTools());
+                sessions.incrementAndGet();
+                return;
+            }
+        } catch (RuntimeException e) {
+            log.warn("⚠️ DevTools indisponível ({}); bloqueando só por URL", e.getMessage());
+        }
+
+        // Sem sessão DevTools: setBlockedURLs via executeCdpCommand ainda corta o grosso, só não conta
+        if (driver instanceof HasCdp cdp) {
+            try {
+                cdp.executeCdpCommand("Network.enable", Map.of());
+                cdp.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", urlPatterns));
+                sessions.incrementAndGet();
+                sessionsWithoutCounters.incrementAndGet();
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Não foi possível aplicar o bloqueio de recursos: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void applyWithDevTools(DevTools devTools) {
+        devTools.createSessionIfThereIsNotOne();
+
+        devTools.addListener(new Event<>("Network.loadingFinished", input -> input.read(Json.MAP_TYPE)),
+                (Map<String, Object> event) -> {
+                    allowed.incrementAndGet();
+                    if (event.get("encodedDataLength") instanceof Number length) {
+                        bytesAllowed.addAndGet(length.longValue());
+                    }
+                });
+        // setBlockedURLs aparece como blockedReason "inspector"
+        devTools.addListener(new Event<>("Network.loadingFailed", input -> input.read(Json.MAP_TYPE)),
+                (Map<String, Object> event) -> {
+                    if ("inspector".equals(event.get("blockedReason"))) {
+                        blockedByUrl.incrementAndGet();
+                    }
+                });
+        devTools.send(new Command<>("Network.enable", Map.of()));
+        if (!urlPatterns.isEmpty()) {
+            devTools.send(new Command<>("Network.setBlockedURLs", Map.of("urls", urlPatterns)));
+        }
+
+        if (!blockedTypes.isEmpty()) {
+            // Só os tipos bloqueados são pausados; o resto nem passa pelo Java
+            devTools.addListener(new Event<>("Fetch.requestPaused", input -> input.read(Json.MAP_TYPE)),
+                    (Map<String, Object> event) -> failRequest(devTools, event));
+            devTools.send(new Command<>("Fetch.enable", Map.of("patterns", fetchPatterns())));
+        }
+    }
+
+    private void failRequest(DevTools devTools, Map<String, Object> event) {
+        Object requestId = event.get("requestId");
+        try {
+            devTools.send(new Command<>("Fetch.failRequest",
+                    Map.of("requestId", requestId, "errorReason", "BlockedByClient")));
+            blockedByType.incrementAndGet();
+        } catch (RuntimeException e) {
+            interceptErrors.incrementAndGet();
+            // Request pausado sem resposta trava a página até o pageLoadTimeout: melhor deixar passar
+            try {
+                devTools.send(new Command<>("Fetch.continueRequest", Map.of("requestId", requestId)));
+            } catch (RuntimeException inner) {
+                log.debug("Falha ao liberar request {}: {}", requestId, inner.getMessage());
+            }
+        }
+    }
+
+    List<Map<String, Object>> fetchPatterns() {
+        List<Map<String, Object>> patterns = new ArrayList<>();
+        for (String type : blockedTypes) {
+            Map<String, Object> pattern = new HashMap<>();
+            pattern.put("urlPattern", "*");
+            pattern.put("resourceType", type);
+            pattern.put("requestStage", "Request");
+            patterns.add(pattern);
+        }
+        return patterns;
+    }
+
+    List<String> blockedTypes() {
+        return blockedTypes;
+    }
+
+    // CDP espera os nomes de Network.ResourceType capitalizados ("Media", "XHR", "EventSource")
+    private static List<String> normalizeTypes(List<String> types) {
+        List<String> normalized = new ArrayList<>();
+        for (String type : clean(types)) {
+            String lower = type.toLowerCase(Locale.ROOT);
+            String name = switch (lower) {
+                case "xhr" -> "XHR";
+                case "texttrack" -> "TextTrack";
+                case "eventsource" -> "EventSource";
+                case "websocket" -> "WebSocket";
+                case "signedexchange" -> "SignedExchange";
+                case "cspviolationreport" -> "CSPViolationReport";
+                default -> Character.toUpperCase(lower.charAt(0)) + lower.substring(1);
+            };
+            if (!normalized.contains(name)) {
+                normalized.add(name);
+            }
+        }
+        return List.copyOf(normalized);
+    }
+
+    private static List<String> clean(List<String> values) {
+        List<String> cleaned = new ArrayList<>();
+        if (values != null) {
+            for (String value : values) {
+                if (value != null && !value.isBlank()) {
+                    cleaned.add(value.trim());
+                }
+            }
+        }
+        return List.copyOf(cleaned);
+    }
+
+    public BlockingStats stats() {
+        long blocked = blockedByType.get() + blockedByUrl.get();
+        return new BlockingStats(enabled, blockedTypes, urlPatterns.size(), sessions.get(),
+                sessionsWithoutCounters.get(), allowed.get(), blocked, blockedByType.get(), blockedByUrl.get(),
+                bytesAllowed.get(), interceptErrors.get());
+    }
+
+    public record BlockingStats(boolean enabled, List<String> blockedTypes, int urlPatterns, long sessions,
+                                long sessionsWithoutCounters, long allowed, long blocked, long blockedByType,
+                                long blockedByUrl, long bytesAllowed, long interceptErrors) {}
+}
@@ -0,0 +1,141 @@
+package com.ensyferum.inscrepper.service;
+
+import com.ensyferum.inscrepper.model.Content;
+import com.ensyferum.inscrepper.model.Profile;
+import com.ensyferum.inscrepper.repository.ProfileRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ScrapeExecutor {
+
+    private final ProfileService profileService;
+    private final ProfileRepository profileRepository;
+
+    @Value("${scraper.parallel-workers:3}")
+    private int parallelWorkers;
+
+    // Perfis enfileirados ou em execução; evita dois workers no mesmo perfil
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor workers;
+
+    @PostConstruct
+    void start() {
+        int size = Math.max(1, parallelWorkers);
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "scrape-worker-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        log.info("⚙️ ScrapeExecutor iniciado com {} workers", size);
+    }
+
+    public boolean isInFlight(UUID profileId) {
+        return inFlight.contains(profileId);
+    }
+
+    public CompletableFuture<List<Content>> submit(UUID profileId) {
+        return submit(profileId, () -> profileService.scrapeProfile(profileId));
+    }
+
+    public CompletableFuture<List<Content>> submit(UUID profileId, Supplier<List<Content>> task) {
+        if (!inFlight.add(profileId)) {
+            return CompletableFuture.failedFuture(
+                    new IllegalStateException("Scraping já em andamento para o perfil: " + profileId));
+        }
+
+        try {
+            return CompletableFuture.supplyAsync(task, workers)
+                    .whenComplete((result, error) -> inFlight.remove(profileId));
+        } catch (RuntimeException e) {
+            inFlight.remove(profileId);
+            throw e;
+        }
+    }
+
+    public BatchSubmission scrapeAllActive() {
+        return scrapeAll(profileRepository.findByActiveTrue());
+    }
+
+    public BatchSubmission scrapeAll(List<Profile> profiles) {
+        long start = System.currentTimeMillis();
+        List<CompletableFuture<List<Content>>> futures = new ArrayList<>();
+        int skipped = 0;
+
+        for (Profile profile : profiles) {
+            if (isInFlight(profile.getId())) {
+                log.info("⏭️ @{} já está em execução, pulando", profile.getUsername());
+                skipped++;
+                continue;
+            }
+            futures.add(submit(profile.getId()));
+        }
+
+        log.info("📦 Lote de scraping enfileirado: {} perfis ({} pulados)", futures.size(), skipped);
+
+        int skippedCount = skipped;
+        CompletableFuture<BatchResult> completion = CompletableFuture
+                .allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .handle((ignored, error) -> {
+                    int succeeded = 0;
+                    int failed = 0;
+                    int newPosts = 0;
+                    for (CompletableFuture<List<Content>> future : futures) {
+                        if (future.isCompletedExceptionally()) {
+                            failed++;
+                        } else {
+                            succeeded++;
+                            newPosts += future.join().size();
+                        }
+                    }
+                    BatchResult result = new BatchResult(futures.size(), succeeded, failed, skippedCount,
+                            newPosts, System.currentTimeMillis() - start);
+                    log.info("🏁 Lote concluído: {}", result);
+                    return result;
+                });
+
+        return new BatchSubmission(futures.size(), skipped, completion);
+    }
+
+    public ExecutorStats stats() {
+        return new ExecutorStats(
+                workers.getMaximumPoolSize(),
+                workers.getActiveCount(),
+                workers.getQueue().size(),
+                inFlight.size(),
+                workers.getCompletedTaskCount()
+        );
+    }
+
+    public record BatchSubmission(int queued, int skipped, CompletableFuture<BatchResult> completion) {}
+
+    public record BatchResult(int total, int succeeded, int failed, int skipped, int newPosts, long durationMs) {}
+
+    public record ExecutorStats(int workers, int active, int queued, int inFlight, long completed) {}
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+}
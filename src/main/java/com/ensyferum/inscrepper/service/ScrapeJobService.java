@@ -0,0 +1,136 @@
+package com.ensyferum.inscrepper.service;
+
+import com.ensyferum.inscrepper.model.Content;
+import com.ensyferum.inscrepper.model.Profile;
+import com.ensyferum.inscrepper.model.ScrapeJob;
+import com.ensyferum.inscrepper.model.ScrapeJobStatus;
+import com.ensyferum.inscrepper.repository.ScrapeJobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ScrapeJobService {
+
+    private final ScrapeJobRepository scrapeJobRepository;
+    private final ProfileService profileService;
+    private final ScrapeExecutor scrapeExecutor;
+    private final ProfileScraperRegistry scraperRegistry;
+
+    public ScrapeJob enqueue(UUID profileId, String type) {
+        Profile profile = profileService.findById(profileId)
+                .orElseThrow(() -> new IllegalArgumentException("Profile not found: " + profileId));
+
+        if (scrapeExecutor.isInFlight(profileId)) {
+            throw new IllegalStateException("Já existe um scraping em andamento para @" + profile.getUsername());
+        }
+
+        String strategy = type == null || type.isBlank() ? "auto" : type;
+        if (!scraperRegistry.supports(strategy)) {
+            throw new IllegalArgumentException("Estratégia de scraping desconhecida: " + strategy
+                    + " (disponíveis: " + scraperRegistry.types() + ")");
+        }
+        ScrapeJob job = scrapeJobRepository.save(ScrapeJob.builder()
+                .profileId(profileId)
+                .username(profile.getUsername())
+                .strategy(strategy)
+                .status(ScrapeJobStatus.QUEUED)
+                .build());
+        UUID jobId = job.getId();
+
+        log.info("📥 Job {} enfileirado: {} para @{}", jobId, strategy, profile.getUsername());
+
+        scrapeExecutor.submit(profileId, () -> {
+                    markRunning(jobId);
+                    return profileService.scrapeProfile(profileId, strategy);
+                })
+                .whenComplete((contents, error) -> markFinished(jobId, contents, error));
+
+        return job;
+    }
+
+    public Optional<ScrapeJob> findById(UUID id) {
+        return scrapeJobRepository.findById(id);
+    }
+
+    public Optional<ScrapeJob> findLatestForProfile(UUID profileId) {
+        return scrapeJobRepository.findFirstByProfileIdOrderByCreatedAtDesc(profileId);
+    }
+
+    public List<ScrapeJob> listRecent(UUID profileId) {
+        return profileId == null
+                ? scrapeJobRepository.findTop50ByOrderByCreatedAtDesc()
+                : scrapeJobRepository.findTop20ByProfileIdOrderByCreatedAtDesc(profileId);
+    }
+
+    // Jobs que estavam na fila/execução quando a aplicação parou nunca terminarão
+    @EventListener(ApplicationReadyEvent.class)
+    public void failOrphanedJobs() {
+        List<ScrapeJob> orphaned = scrapeJobRepository.findByStatusIn(
+                List.of(ScrapeJobStatus.QUEUED, ScrapeJobStatus.RUNNING));
+        if (orphaned.isEmpty()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        for (ScrapeJob job : orphaned) {
+            job.setStatus(ScrapeJobStatus.FAILED);
+            job.setErrorMessage("Interrompido por reinício da aplicação");
+            job.setFinishedAt(now);
+        }
+        scrapeJobRepository.saveAll(orphaned);
+        log.warn("⚠️ {} jobs órfãos marcados como FAILED", orphaned.size());
+    }
+
+    private void markRunning(UUID jobId) {
+        scrapeJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(ScrapeJobStatus.RUNNING);
+            job.setStartedAt(Instant.now());
+            scrapeJobRepository.save(job);
+        });
+    }
+
+    private void markFinished(UUID jobId, List<Content> contents, Throwable error) {
+        try {
+            scrapeJobRepository.findById(jobId).ifPresent(job -> {
+                Instant now = Instant.now();
+                job.setFinishedAt(now);
+                if (job.getStartedAt() != null) {
+                    job.setDurationMs(Duration.between(job.getStartedAt(), now).toMillis());
+                }
+
+                if (error == null) {
+                    job.setStatus(ScrapeJobStatus.SUCCEEDED);
+                    job.setPostsFound(contents.size());
+                } else {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    job.setStatus(ScrapeJobStatus.FAILED);
+                    job.setErrorMessage(truncate(cause.getMessage()));
+                }
+                scrapeJobRepository.save(job);
+                log.info("🏁 Job {} finalizado: {}", jobId, job.getStatus());
+            });
+        } catch (Exception e) {
+            log.error("❌ Erro ao atualizar job {}: {}", jobId, e.getMessage());
+        }
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
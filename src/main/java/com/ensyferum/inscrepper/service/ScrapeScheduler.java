@@ -0,0 +1,96 @@
+package com.ensyferum.inscrepper.service;
+
+import com.ensyferum.inscrepper.model.Profile;
+import com.ensyferum.inscrepper.repository.ProfileRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "scraper.auto-scrape-enabled", havingValue = "true")
+public class ScrapeScheduler {
+
+    private final ProfileRepository profileRepository;
+    private final ScrapeExecutor scrapeExecutor;
+    private final TaskScheduler taskScheduler;
+
+    @Value("${scraper.schedule-cron:0 0 */6 * * *}")
+    private String scheduleCron;
+
+    // Fração do intervalo entre ticks usada para distribuir os perfis
+    @Value("${scraper.schedule-spread:0.8}")
+    private double spreadFraction;
+
+    // Perfis agendados neste ciclo mas ainda não entregues ao executor
+    private final Set<UUID> pending = ConcurrentHashMap.newKeySet();
+
+    @Scheduled(cron = "${scraper.schedule-cron:0 0 */6 * * *}")
+    public void scheduledScrape() {
+        List<Profile> candidates = profileRepository.findActiveOrderByStaleness().stream()
+                .filter(p -> !pending.contains(p.getId()) && !scrapeExecutor.isInFlight(p.getId()))
+                .toList();
+
+        if (candidates.isEmpty()) {
+            log.info("⏰ Tick do agendador: nenhum perfil elegível");
+            return;
+        }
+
+        ZonedDateTime now = ZonedDateTime.now();
+        Duration window = spreadWindow(now);
+        Duration step = window.dividedBy(candidates.size());
+
+        log.info("⏰ Tick do agendador: {} perfis distribuídos em {} (um a cada {})",
+                candidates.size(), window, step);
+
+        Instant start = now.toInstant();
+        for (int i = 0; i < candidates.size(); i++) {
+            Profile profile = candidates.get(i);
+            UUID profileId = profile.getId();
+            pending.add(profileId);
+            taskScheduler.schedule(() -> dispatch(profileId, profile.getUsername()),
+                    start.plus(step.multipliedBy(i)));
+        }
+    }
+
+    private void dispatch(UUID profileId, String username) {
+        pending.remove(profileId);
+        if (scrapeExecutor.isInFlight(profileId)) {
+            log.info("⏭️ @{} ainda em execução, pulando neste ciclo", username);
+            return;
+        }
+
+        scrapeExecutor.submit(profileId).whenComplete((contents, error) -> {
+            if (error != null) {
+                log.warn("⚠️ Scraping agendado de @{} falhou: {}", username, error.getMessage());
+            }
+        });
+    }
+
+    private Duration spreadWindow(ZonedDateTime now) {
+        try {
+            ZonedDateTime next = CronExpression.parse(scheduleCron).next(now);
+            if (next != null) {
+                double fraction = Math.max(0, Math.min(1, spreadFraction));
+                return Duration.ofMillis((long) (Duration.between(now, next).toMillis() * fraction));
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("⚠️ Cron inválida '{}': {}", scheduleCron, e.getMessage());
+        }
+        return Duration.ZERO;
+    }
+}
@@ -0,0 +1,103 @@
+package com.ensyferum.inscrepper.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+// Custo e rendimento de cada estratégia de coleta, para comparar as estratégias com números
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ScraperMetrics {
+
+    private final HttpFetcher httpFetcher;
+
+    private final Map<String, Counters> byType = new ConcurrentHashMap<>();
+
+    private static final class Counters {
+        final LongAdder runs = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder newPosts = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        final LongAdder bytes = new LongAdder();
+        final AtomicLong lastRunAt = new AtomicLong();
+    }
+
+    public <T> T measure(String type, Supplier<T> run, ToIntFunction<T> newPostsOf, Predicate<T> failed) {
+        Counters counters = byType.computeIfAbsent(type, t -> new Counters());
+        long bytesBefore = httpFetcher.bytesOnWireByCurrentThread();
+        long start = System.nanoTime();
+        boolean failure = true;
+        try {
+            T result = run.get();
+            failure = failed.test(result);
+            counters.newPosts.add(newPostsOf.applyAsInt(result));
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            counters.runs.increment();
+            counters.totalNanos.add(elapsed);
+            counters.maxNanos.accumulate(elapsed);
+            // Só o tráfego do HttpFetcher nesta thread; o que o Chrome baixa por conta própria não entra
+            counters.bytes.add(httpFetcher.bytesOnWireByCurrentThread() - bytesBefore);
+            counters.lastRunAt.set(System.currentTimeMillis());
+            if (failure) {
+                counters.failures.increment();
+            }
+            log.debug("📏 {}: {} ms{}", type, elapsed / 1_000_000, failure ? " (falha)" : "");
+        }
+    }
+
+    // Exceção conta como falha; lista vazia não (pode só não haver posts novos)
+    public <T> List<T> measure(String type, Supplier<List<T>> run) {
+        return measure(type, run, List::size, result -> false);
+    }
+
+    public StrategyStats stats(String type) {
+        Counters c = byType.get(type);
+        if (c == null) {
+            return new StrategyStats(type, 0, 0, 0, 0, 0, 0, 0, 0, 0, null);
+        }
+        long runs = c.runs.sum();
+        long failures = c.failures.sum();
+        long posts = c.newPosts.sum();
+        long bytes = c.bytes.sum();
+        long lastRunAt = c.lastRunAt.get();
+        return new StrategyStats(type, runs, failures,
+                runs == 0 ? 0 : (double) failures / runs,
+                runs == 0 ? 0 : c.totalNanos.sum() / runs / 1_000_000,
+                c.maxNanos.get() / 1_000_000,
+                posts,
+                runs == 0 ? 0 : (double) posts / runs,
+                bytes,
+                runs == 0 ? 0 : bytes / runs,
+                lastRunAt == 0 ? null : Instant.ofEpochMilli(lastRunAt));
+    }
+
+    public List<StrategyStats> stats(List<String> types) {
+        List<StrategyStats> all = new ArrayList<>();
+        for (String type : types) {
+            all.add(stats(type));
+        }
+        all.sort(Comparator.comparing(StrategyStats::type));
+        return all;
+    }
+
+    public record StrategyStats(String type, long runs, long failures, double failureRate,
+                                long avgLatencyMs, long maxLatencyMs, long newPosts, double postsPerRun,
+                                long bytes, long bytesPerRun, Instant lastRunAt) {}
+}
@@ -3,24 +3,15 @@ package com.ensyferum.inscrepper.service;
 import com.ensyferum.inscrepper.model.Content;
 import com.ensyferum.inscrepper.model.ContentType;
 import com.ensyferum.inscrepper.model.Profile;
-import com.ensyferum.inscrepper.repository.ContentRepository;
-import io.github.bonigarcia.wdm.WebDriverManager;
+import com.ensyferum.inscrepper.model.ScrapeTier;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -31,33 +22,49 @@ import java.util.Optional;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class ScrapingService {
+public class ScrapingService implements ProfileScraper {
 
-    private final ContentRepository contentRepository;
+    private final ContentDedupService contentDedupService;
+    private final ShortcodeExtractor shortcodeExtractor;
+    private final WebDriverPool driverPool;
+    private final MediaStore mediaStore;
+    private final HttpFetcher httpFetcher;
+    private final PageReadiness pageReadiness;
     
     private static final String INSTAGRAM_BASE_URL = "https://www.instagram.com/";
     private static final int MAX_POSTS_TO_SCRAPE = 6;
 
+    @Override
+    public String type() {
+        return "basic";
+    }
+
+    @Override
+    public ScrapeTier tier() {
+        return ScrapeTier.BROWSER;
+    }
+
     public List<Content> scrapeProfile(Profile profile) {
         List<Content> scrapedContents = new ArrayList<>();
         WebDriver driver = null;
         
         try {
-            driver = createWebDriver();
+            driver = driverPool.borrow();
             String profileUrl = INSTAGRAM_BASE_URL + profile.getUsername() + "/";
             log.info("Acessando perfil: {}", profileUrl);
             
             driver.get(profileUrl);
             
-            // Aguardar a página carregar completamente
-            new WebDriverWait(driver, Duration.ofSeconds(15));
-            
-            // Aguardar um pouco para o JavaScript carregar o conteúdo
-            Thread.sleep(3000);
+            // Aguardar o JavaScript montar o grid (para assim que estabilizar)
+            PageReadiness.Snapshot ready = pageReadiness.awaitSettled(driver);
+            log.info("Página pronta: {} links de posts", ready.anchors());
             
             // Imprimir HTML da página para análise (apenas uma parte)
             String pageSource = driver.getPageSource();
             log.info("Tamanho da página: {} caracteres", pageSource.length());
+            if (HttpInstagramScraper.looksBlocked(200, pageSource)) {
+                throw new IllegalStateException("Página de bloqueio (login ou rate limit)");
+            }
             
             // Analisar a estrutura da página para debugging
             analyzePageStructure(driver);
@@ -67,27 +74,29 @@ public class ScrapingService {
             
             log.info("Encontrados {} posts para o perfil {}", postElements.size(), profile.getUsername());
             
-            int postsProcessed = 0;
+            // Extrair informações de todos os posts antes de consultar o banco
+            List<PostInfo> candidates = new ArrayList<>();
             for (WebElement postElement : postElements) {
+                PostInfo postInfo = extractPostInfo(postElement, driver);
+                
+                if (postInfo.getUrl() == null || postInfo.getShortcode() == null) {
+                    log.warn("Post sem URL ou shortcode válido, pulando...");
+                    continue;
+                }
+                candidates.add(postInfo);
+            }
+            
+            // Verificar em lote quais já existem no banco
+            List<PostInfo> newPosts = contentDedupService.filterNew(candidates, PostInfo::getShortcode);
+            log.info("Posts novos: {} ({} já existem no banco)", newPosts.size(), candidates.size() - newPosts.size());
+            
+            int postsProcessed = 0;
+            for (PostInfo postInfo : newPosts) {
                 if (postsProcessed >= MAX_POSTS_TO_SCRAPE) {
                     break;
                 }
                 
                 try {
-                    // Extrair informações do post
-                    PostInfo postInfo = extractPostInfo(postElement, driver);
-                    
-                    if (postInfo.getUrl() == null || postInfo.getShortcode() == null) {
-                        log.warn("Post sem URL ou shortcode válido, pulando...");
-                        continue;
-                    }
-                    
-                    // Verificar se já existe no banco
-                    if (contentRepository.existsByExternalId(postInfo.getShortcode())) {
-                        log.info("Post {} já existe no banco, pulando...", postInfo.getShortcode());
-                        continue;
-                    }
-                    
                     Content content = Content.builder()
                             .profile(profile)
                             .externalId(postInfo.getShortcode())
@@ -115,95 +124,47 @@ public class ScrapingService {
             
         } catch (Exception e) {
             log.error("Erro durante o scraping do perfil {}: {}", profile.getUsername(), e.getMessage());
+            driverPool.invalidate(driver);
+            driver = null;
+            // Falha precisa chegar ao ScraperMetrics: lista vazia seria lida como "sem posts novos"
+            throw new IllegalStateException("Falha no scraping de @" + profile.getUsername() + ": " + e.getMessage(), e);
         } finally {
-            if (driver != null) {
-                driver.quit();
-            }
+            driverPool.release(driver);
         }
         
         return scrapedContents;
     }
     
-    private WebDriver createWebDriver() {
-        WebDriverManager.chromedriver().setup();
-        
-        ChromeOptions options = new ChromeOptions();
-        
-        // Executar em modo headless para evitar problemas de UI
-        options.addArguments("--headless");
-        
-        options.addArguments("--no-sandbox");
-        options.addArguments("--disable-dev-shm-usage");
-        options.addArguments("--disable-gpu");
-        options.addArguments("--disable-web-security");
-        options.addArguments("--disable-features=VizDisplayCompositor");
-        options.addArguments("--window-size=1920,1080");
-        options.addArguments("--start-maximized");
-        
-        // User agent mais recente
-        options.addArguments("--user-agent=Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/119.0.0.0 Safari/537.36");
-        
-        // Desabilitar imagens para carregar mais rápido (pode ser removido se necessário)
-        // options.addArguments("--blink-settings=imagesEnabled=false");
-        
-        // Configurações adicionais para evitar detecção
-        options.addArguments("--disable-blink-features=AutomationControlled");
-        options.setExperimentalOption("excludeSwitches", new String[]{"enable-automation"});
-        options.setExperimentalOption("useAutomationExtension", false);
-        
-        WebDriver driver = new ChromeDriver(options);
-        
-        // Executar script para remover propriedades do webdriver
-        ((ChromeDriver) driver).executeScript("Object.defineProperty(navigator, 'webdriver', {get: () => undefined})");
-        
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-        driver.manage().window().maximize();
-        
-        return driver;
-    }
-    
     private String extractShortcodeFromUrl(String url) {
         // URL format: https://www.instagram.com/p/SHORTCODE/
-        String[] parts = url.split("/");
-        for (int i = 0; i < parts.length; i++) {
-            if ("p".equals(parts[i]) && i + 1 < parts.length) {
-                return parts[i + 1];
-            }
-        }
-        return url.hashCode() + ""; // Fallback
+        String shortcode = shortcodeExtractor.shortcodeOf(url);
+        return shortcode != null ? shortcode : url.hashCode() + ""; // Fallback
     }
     
     private void downloadAndSaveImage(Content content, String imageUrl) {
         try {
-            URL url = new URL(imageUrl);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestProperty("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
-            connection.setConnectTimeout(5000);
-            connection.setReadTimeout(10000);
-            
-            try (InputStream inputStream = connection.getInputStream();
-                 ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-                
-                byte[] buffer = new byte[8192];
-                int bytesRead;
-                while ((bytesRead = inputStream.read(buffer)) != -1) {
-                    outputStream.write(buffer, 0, bytesRead);
+            // Grava direto no MediaStore, sem materializar a imagem em memória
+            MediaStore.StoredMedia media = httpFetcher.get(imageUrl, (status, headers, body) -> {
+                if (status != 200) {
+                    throw new IOException("HTTP " + status);
                 }
-                
-                content.setImageBlob(outputStream.toByteArray());
-                content.setImageMimeType(connection.getContentType());
-                
-                log.info("Imagem baixada com sucesso: {} bytes", outputStream.size());
-                
-            }
+                return mediaStore.store(body, headers.firstValue("Content-Type").orElse(null));
+            });
+            
+            content.setImageHash(media.hash());
+            content.setImageSize(media.size());
+            content.setImageMimeType(media.mimeType());
+            
+            log.info("Imagem baixada: {} bytes ({})", media.size(), media.hash());
         } catch (IOException e) {
             log.error("Erro ao baixar imagem: {}", e.getMessage());
         }
     }
     
+    @Override
     public List<Content> scrapeAndSaveProfile(Profile profile) {
         List<Content> contents = scrapeProfile(profile);
-        return contentRepository.saveAll(contents);
+        return contentDedupService.saveAll(contents);
     }
     
     private List<WebElement> findPostElements(WebDriver driver) {
@@ -0,0 +1,158 @@
+package com.ensyferum.inscrepper.service;
+
+import com.ensyferum.inscrepper.model.ContentType;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Varredura única da página atrás de /p/<code>/, /reel/<code>/ (inclusive com "\/" de JSON)
+// e de "shortcode":"<code>", sem regex nem compilação de Pattern por chamada
+@Component
+public class ShortcodeExtractor {
+
+    public static final String INSTAGRAM_URL = "https://www.instagram.com";
+
+    private static final int MIN_SHORTCODE_LENGTH = 5;
+    private static final int MAX_SHORTCODE_LENGTH = 64;
+    private static final String SHORTCODE_KEY = "\"shortcode\"";
+
+    public record PostRef(String shortcode, ContentType type) {
+        public String url() {
+            return INSTAGRAM_URL + (type == ContentType.REEL ? "/reel/" : "/p/") + shortcode;
+        }
+    }
+
+    public List<PostRef> extract(CharSequence page) {
+        return extract(page, Integer.MAX_VALUE);
+    }
+
+    // Resultados na ordem em que aparecem na página (grid mais recente primeiro), sem repetição
+    public List<PostRef> extract(CharSequence page, int limit) {
+        Map<String, PostRef> found = new LinkedHashMap<>();
+        if (page == null) {
+            return new ArrayList<>();
+        }
+
+        int length = page.length();
+        int i = 0;
+        while (i < length && found.size() < limit) {
+            char c = page.charAt(i);
+            int next = i + 1;
+
+            if (c == '/') {
+                // "/p/" ou "/reel/", aceitando a barra escapada do JSON ("\/p\/")
+                int after = matchSegment(page, i + 1, "p");
+                ContentType type = ContentType.POST;
+                if (after < 0) {
+                    after = matchSegment(page, i + 1, "reel");
+                    type = ContentType.REEL;
+                }
+                if (after >= 0) {
+                    int end = scanShortcode(page, after);
+                    if (end > after && isPathTerminator(page, end)) {
+                        add(found, page.subSequence(after, end).toString(), type);
+                        next = end;
+                    }
+                }
+            } else if (c == '"' && startsWith(page, i, SHORTCODE_KEY)) {
+                int valueStart = skipToStringValue(page, i + SHORTCODE_KEY.length());
+                if (valueStart >= 0) {
+                    int end = scanShortcode(page, valueStart);
+                    if (end > valueStart && end < length && page.charAt(end) == '"') {
+                        add(found, page.subSequence(valueStart, end).toString(), ContentType.POST);
+                        next = end;
+                    }
+                }
+            }
+
+            i = next;
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    // Shortcode de uma URL de post/reel; null quando a URL não é de post
+    public String shortcodeOf(String url) {
+        List<PostRef> refs = extract(url, 1);
+        return refs.isEmpty() ? null : refs.get(0).shortcode();
+    }
+
+    public ContentType typeOf(String url) {
+        List<PostRef> refs = extract(url, 1);
+        return refs.isEmpty() ? ContentType.UNKNOWN : refs.get(0).type();
+    }
+
+    private static void add(Map<String, PostRef> found, String shortcode, ContentType type) {
+        int length = shortcode.length();
+        if (length >= MIN_SHORTCODE_LENGTH && length <= MAX_SHORTCODE_LENGTH) {
+            found.putIfAbsent(shortcode, new PostRef(shortcode, type));
+        }
+    }
+
+    // Casa "<segment>/" ou "<segment>\/" a partir de start; devolve o índice após a barra ou -1
+    private static int matchSegment(CharSequence page, int start, String segment) {
+        if (!startsWith(page, start, segment)) {
+            return -1;
+        }
+        int pos = start + segment.length();
+        if (pos < page.length() && page.charAt(pos) == '/') {
+            return pos + 1;
+        }
+        if (pos + 1 < page.length() && page.charAt(pos) == '\\' && page.charAt(pos + 1) == '/') {
+            return pos + 2;
+        }
+        return -1;
+    }
+
+    private static int scanShortcode(CharSequence page, int start) {
+        int i = start;
+        int limit = Math.min(page.length(), start + MAX_SHORTCODE_LENGTH + 1);
+        while (i < limit && isShortcodeChar(page.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    // Depois do código vem "/" (ou "\/"), aspas, "?", "#" ou fim do texto; evita pegar pedaços de palavras
+    private static boolean isPathTerminator(CharSequence page, int pos) {
+        if (pos >= page.length()) {
+            return true;
+        }
+        char c = page.charAt(pos);
+        return c == '/' || c == '\\' || c == '"' || c == '\'' || c == '?' || c == '#';
+    }
+
+    // Após "shortcode": pula espaços, ':' e espaços até a aspa de abertura do valor
+    private static int skipToStringValue(CharSequence page, int pos) {
+        int length = page.length();
+        while (pos < length && Character.isWhitespace(page.charAt(pos))) {
+            pos++;
+        }
+        if (pos >= length || page.charAt(pos) != ':') {
+            return -1;
+        }
+        pos++;
+        while (pos < length && Character.isWhitespace(page.charAt(pos))) {
+            pos++;
+        }
+        return pos < length && page.charAt(pos) == '"' ? pos + 1 : -1;
+    }
+
+    private static boolean startsWith(CharSequence page, int start, String prefix) {
+        if (start + prefix.length() > page.length()) {
+            return false;
+        }
+        for (int k = 0; k < prefix.length(); k++) {
+            if (page.charAt(start + k) != prefix.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isShortcodeChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-';
+    }
+}
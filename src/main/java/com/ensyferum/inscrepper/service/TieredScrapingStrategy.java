@@ -0,0 +1,132 @@
+package com.ensyferum.inscrepper.service;
+
+import com.ensyferum.inscrepper.model.Content;
+import com.ensyferum.inscrepper.model.Profile;
+import com.ensyferum.inscrepper.model.ScrapeTier;
+import com.ensyferum.inscrepper.repository.ProfileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// HTTP primeiro; o Chrome só entra quando a leitura HTTP falha, é bloqueada ou vem pobre demais.
+// A camada que funcionou fica no perfil e a próxima coleta começa por ela.
+@Slf4j
+@Service
+public class TieredScrapingStrategy implements ProfileScraper {
+
+    private final HttpInstagramScraper httpScraper;
+    private final ProfileScraperRegistry registry;
+    private final ScraperMetrics metrics;
+    private final ProfileRepository profileRepository;
+
+    // Menos posts que isso na página (contando os já salvos) indica HTML sem os dados do grid
+    @Value("${scraper.tiered.min-posts:1}")
+    private int minPosts = 1;
+
+    // Perfis que precisaram do browser voltam a testar o HTTP depois desse intervalo
+    @Value("${scraper.tiered.http-retry-after:PT24H}")
+    private Duration httpRetryAfter = Duration.ofHours(24);
+
+    // Estratégia de browser usada enquanto o roteamento não tem números para escolher outra
+    @Value("${scraper.tiered.default-browser:enhanced}")
+    private String defaultBrowser = "enhanced";
+
+    // @Lazy: o registry recebe esta própria estratégia na lista de ProfileScraper
+    public TieredScrapingStrategy(HttpInstagramScraper httpScraper, @Lazy ProfileScraperRegistry registry,
+                                  ScraperMetrics metrics, ProfileRepository profileRepository) {
+        this.httpScraper = httpScraper;
+        this.registry = registry;
+        this.metrics = metrics;
+        this.profileRepository = profileRepository;
+    }
+
+    @Override
+    public String type() {
+        return "auto";
+    }
+
+    @Override
+    public ScrapeTier tier() {
+        return ScrapeTier.HTTP;
+    }
+
+    @Override
+    public boolean composite() {
+        return true;
+    }
+
+    @Override
+    public List<Content> scrapeAndSaveProfile(Profile profile) {
+        ScrapeTier start = startTier(profile, httpRetryAfter, Instant.now());
+        List<Content> results = new ArrayList<>();
+
+        if (start == ScrapeTier.HTTP) {
+            HttpInstagramScraper.Result http = metrics.measure(httpScraper.type(),
+                    () -> httpScraper.scrapeAndSave(profile),
+                    result -> result.contents().size(),
+                    result -> escalationReason(result, minPosts) != null);
+            results.addAll(http.contents());
+
+            String reason = escalationReason(http, minPosts);
+            if (reason == null) {
+                log.info("🪶 @{} resolvido via HTTP ({}, {} posts na página, {} novos)", profile.getUsername(),
+                        http.outcome(), http.postsFound(), http.contents().size());
+                remember(profile, start, ScrapeTier.HTTP);
+                return results;
+            }
+
+            log.info("⬆️ @{}: HTTP insuficiente ({}), escalando para o browser", profile.getUsername(), reason);
+            // A página considerada ruim não pode virar "sem mudanças" na próxima coleta
+            httpScraper.invalidate(profile);
+        } else {
+            log.info("🖥️ @{} prefere o browser desde {}", profile.getUsername(), profile.getPreferredTierSince());
+        }
+
+        // Entre as estratégias de browser, a mais barata que já rende o suficiente (de vez em quando outra, para medir)
+        String browser = registry.route(ScrapeTier.BROWSER, defaultBrowser);
+        // Estratégias de browser lançam exceção quando falham (sessão morta, bloqueio, perfil inexistente):
+        // só chega aqui página carregada e validada, e "nenhum post novo" é o normal de um perfil em dia
+        results.addAll(registry.scrape(browser, profile));
+        remember(profile, start, ScrapeTier.BROWSER);
+        return results;
+    }
+
+    static ScrapeTier startTier(Profile profile, Duration httpRetryAfter, Instant now) {
+        if (profile.getPreferredTier() != ScrapeTier.BROWSER) {
+            return ScrapeTier.HTTP;
+        }
+        Instant since = profile.getPreferredTierSince();
+        boolean retryHttp = since == null || !since.plus(httpRetryAfter).isAfter(now);
+        return retryHttp ? ScrapeTier.HTTP : ScrapeTier.BROWSER;
+    }
+
+    // null = o resultado HTTP basta; senão, o motivo para subir de camada
+    static String escalationReason(HttpInstagramScraper.Result result, int minPosts) {
+        return switch (result.outcome()) {
+            case UNCHANGED -> null;
+            case BLOCKED -> "bloqueio, HTTP " + result.httpStatus();
+            case FAILED -> "falha, HTTP " + result.httpStatus();
+            case OK -> result.postsFound() < minPosts
+                    ? "só " + result.postsFound() + " posts na página"
+                    : null;
+        };
+    }
+
+    // Grava só quando a preferência muda ou quando o HTTP foi testado de novo e perdeu (reinicia o prazo)
+    private void remember(Profile profile, ScrapeTier start, ScrapeTier winner) {
+        if (profile.getPreferredTier() == winner && start == winner) {
+            return;
+        }
+        Instant now = Instant.now();
+        profileRepository.updatePreferredTier(profile.getId(), winner, now);
+        profile.setPreferredTier(winner);
+        profile.setPreferredTierSince(now);
+        log.info("📌 @{} agora prefere {}", profile.getUsername(), winner);
+    }
+}
@@ -0,0 +1,367 @@
+package com.ensyferum.inscrepper.service;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WebDriverPool {
+
+    // Pool de User-Agents realísticos (sorteado por sessão, não por scrape)
+    private static final String[] USER_AGENTS = {
+        "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36",
+        "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/119.0.0.0 Safari/537.36",
+        "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36",
+        "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36"
+    };
+
+    private static final String[][] VIEWPORTS = {
+        {"1920", "1080"},
+        {"1366", "768"},
+        {"1440", "900"},
+        {"1600", "900"},
+        {"1280", "720"}
+    };
+
+    private final ResourceBlockingPolicy resourceBlocking;
+    private final NetworkResponseCapture networkCapture;
+
+    @Value("${scraper.headless:true}")
+    private boolean headless;
+
+    @Value("${scraper.driver-pool.min-size:0}")
+    private int minSize;
+
+    @Value("${scraper.driver-pool.max-size:${scraper.parallel-workers:3}}")
+    private int maxSize;
+
+    @Value("${scraper.driver-pool.max-uses:25}")
+    private int maxUses;
+
+    @Value("${scraper.driver-pool.idle-timeout:PT10M}")
+    private Duration idleTimeout;
+
+    @Value("${scraper.driver-pool.borrow-timeout:PT2M}")
+    private Duration borrowTimeout;
+
+    @Value("${scraper.driver-pool.eviction-interval:PT1M}")
+    private Duration evictionInterval;
+
+    private final LinkedBlockingDeque<PooledDriver> idle = new LinkedBlockingDeque<>();
+    private final Map<WebDriver, PooledDriver> borrowed = new ConcurrentHashMap<>();
+    private Semaphore permits;
+    private ScheduledExecutorService evictor;
+    private volatile boolean driverBinarySetup;
+    private volatile boolean closed;
+
+    // Métricas de ocupação e espera
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong destroyed = new AtomicLong();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong borrowWaitNanos = new AtomicLong();
+    private final AtomicLong maxBorrowWaitNanos = new AtomicLong();
+    private final AtomicLong borrowTimeouts = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        maxSize = Math.max(1, maxSize);
+        minSize = Math.max(0, Math.min(minSize, maxSize));
+        permits = new Semaphore(maxSize, true);
+
+        evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "webdriver-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long intervalMs = Math.max(1000, evictionInterval.toMillis());
+        // Primeira execução também aquece o pool até min-size sem bloquear o startup
+        evictor.scheduleWithFixedDelay(this::evictAndReplenish, 0, intervalMs, TimeUnit.MILLISECONDS);
+
+        log.info("🏊 WebDriverPool iniciado: min={}, max={}, maxUses={}, idleTimeout={}",
+                minSize, maxSize, maxUses, idleTimeout);
+    }
+
+    public WebDriver borrow() {
+        if (closed) {
+            throw new IllegalStateException("WebDriverPool encerrado");
+        }
+
+        long startNanos = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                borrowTimeouts.incrementAndGet();
+                throw new IllegalStateException("Timeout aguardando WebDriver livre no pool (" + borrowTimeout + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando WebDriver do pool", e);
+        }
+        recordBorrowWait(System.nanoTime() - startNanos);
+
+        try {
+            PooledDriver pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isHealthy(pooled)) {
+                    break;
+                }
+                destroy(pooled, "health-check falhou");
+            }
+
+            if (pooled == null) {
+                pooled = new PooledDriver(createDriver());
+            }
+
+            pooled.uses++;
+            borrowed.put(pooled.driver, pooled);
+            return pooled.driver;
+
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public void release(WebDriver driver) {
+        PooledDriver pooled = driver == null ? null : borrowed.remove(driver);
+        if (pooled == null) {
+            return;
+        }
+
+        try {
+            if (closed || pooled.uses >= maxUses) {
+                destroy(pooled, closed ? "pool encerrado" : "atingiu max-uses (" + maxUses + ")");
+            } else {
+                resetSession(pooled);
+                pooled.lastReturnedAt = Instant.now();
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Descarta a sessão em vez de devolvê-la (ex.: bloqueio, crash do browser)
+    public void invalidate(WebDriver driver) {
+        PooledDriver pooled = driver == null ? null : borrowed.remove(driver);
+        if (pooled == null) {
+            return;
+        }
+
+        try {
+            destroy(pooled, "invalidada pelo chamador");
+        } finally {
+            permits.release();
+        }
+    }
+
+    public PoolStats stats() {
+        long borrows = borrowCount.get();
+        return new PoolStats(
+                maxSize,
+                minSize,
+                borrowed.size(),
+                idle.size(),
+                permits.getQueueLength(),
+                created.get(),
+                destroyed.get(),
+                borrows,
+                borrows > 0 ? TimeUnit.NANOSECONDS.toMillis(borrowWaitNanos.get()) / (double) borrows : 0,
+                TimeUnit.NANOSECONDS.toMillis(maxBorrowWaitNanos.get()),
+                borrowTimeouts.get()
+        );
+    }
+
+    public record PoolStats(int maxSize,
+                            int minSize,
+                            int active,
+                            int idle,
+                            int waiting,
+                            long created,
+                            long destroyed,
+                            long borrows,
+                            double avgBorrowWaitMs,
+                            long maxBorrowWaitMs,
+                            long borrowTimeouts) {}
+
+    @PreDestroy
+    void shutdown() {
+        closed = true;
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+
+        PooledDriver pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled, "shutdown");
+        }
+        for (PooledDriver active : new ArrayList<>(borrowed.values())) {
+            destroy(active, "shutdown");
+        }
+        borrowed.clear();
+        log.info("🏁 WebDriverPool encerrado: {} sessões criadas, {} destruídas", created.get(), destroyed.get());
+    }
+
+    private void evictAndReplenish() {
+        try {
+            Instant cutoff = Instant.now().minus(idleTimeout);
+
+            // Mantém pelo menos min-size sessões ociosas; remove as mais antigas primeiro
+            List<PooledDriver> expired = new ArrayList<>();
+            Iterator<PooledDriver> it = idle.descendingIterator();
+            int remaining = idle.size();
+            while (it.hasNext() && remaining > minSize) {
+                PooledDriver pooled = it.next();
+                if (pooled.lastReturnedAt.isBefore(cutoff) && idle.remove(pooled)) {
+                    expired.add(pooled);
+                    remaining--;
+                }
+            }
+            for (PooledDriver pooled : expired) {
+                destroy(pooled, "ociosa há mais de " + idleTimeout);
+            }
+
+            while (!closed && idle.size() + borrowed.size() < minSize && permits.tryAcquire()) {
+                try {
+                    PooledDriver pooled = new PooledDriver(createDriver());
+                    pooled.lastReturnedAt = Instant.now();
+                    idle.offerLast(pooled);
+                } finally {
+                    permits.release();
+                }
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ Falha na manutenção do WebDriverPool: {}", e.getMessage());
+        }
+    }
+
+    private boolean isHealthy(PooledDriver pooled) {
+        try {
+            pooled.driver.get("about:blank");
+            return true;
+        } catch (Exception e) {
+            log.debug("Sessão WebDriver não responde: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void resetSession(PooledDriver pooled) {
+        try {
+            pooled.driver.manage().deleteAllCookies();
+        } catch (Exception e) {
+            log.debug("Erro ao limpar cookies da sessão: {}", e.getMessage());
+        }
+    }
+
+    private void destroy(PooledDriver pooled, String reason) {
+        destroyed.incrementAndGet();
+        log.debug("🗑️ Descartando sessão WebDriver ({} usos): {}", pooled.uses, reason);
+        networkCapture.forget(pooled.driver);
+        try {
+            pooled.driver.quit();
+        } catch (Exception e) {
+            log.debug("Erro ao fechar driver: {}", e.getMessage());
+        }
+    }
+
+    private void recordBorrowWait(long waitNanos) {
+        borrowCount.incrementAndGet();
+        borrowWaitNanos.addAndGet(waitNanos);
+        maxBorrowWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    private WebDriver createDriver() {
+        if (!driverBinarySetup) {
+            synchronized (this) {
+                if (!driverBinarySetup) {
+                    WebDriverManager.chromedriver().setup();
+                    driverBinarySetup = true;
+                }
+            }
+        }
+
+        ChromeOptions options = new ChromeOptions();
+
+        String userAgent = USER_AGENTS[ThreadLocalRandom.current().nextInt(USER_AGENTS.length)];
+        String[] viewport = VIEWPORTS[ThreadLocalRandom.current().nextInt(VIEWPORTS.length)];
+        options.addArguments("--user-agent=" + userAgent);
+        options.addArguments("--window-size=" + viewport[0] + "," + viewport[1]);
+
+        if (headless) {
+            options.addArguments("--headless");
+        }
+
+        // Configurações anti-detecção
+        options.addArguments("--no-sandbox");
+        options.addArguments("--disable-dev-shm-usage");
+        options.addArguments("--disable-gpu");
+        options.addArguments("--disable-blink-features=AutomationControlled");
+        options.addArguments("--disable-extensions");
+        options.addArguments("--disable-plugins");
+        options.addArguments("--disable-web-security");
+        options.addArguments("--allow-running-insecure-content");
+        options.addArguments("--disable-features=VizDisplayCompositor");
+
+        Map<String, Object> prefs = new HashMap<>();
+        prefs.put("profile.default_content_setting_values.notifications", 2);
+        prefs.put("profile.default_content_settings.popups", 0);
+        options.setExperimentalOption("prefs", prefs);
+
+        options.setExperimentalOption("excludeSwitches", Arrays.asList("enable-automation"));
+        options.setExperimentalOption("useAutomationExtension", false);
+
+        long start = System.currentTimeMillis();
+        ChromeDriver driver = new ChromeDriver(options);
+
+        // Script para mascarar webdriver
+        driver.executeScript("Object.defineProperty(navigator, 'webdriver', {get: () => undefined})");
+
+        // Vídeo, fontes, imagens e rastreadores barrados antes de sair da rede
+        resourceBlocking.apply(driver);
+        // Respostas de rede viram posts estruturados sem precisar de getPageSource()
+        networkCapture.install(driver);
+
+        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
+        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(5));
+
+        created.incrementAndGet();
+        log.info("🚀 Nova sessão WebDriver criada em {} ms (UA: {}, viewport: {}x{})",
+                System.currentTimeMillis() - start, userAgent, viewport[0], viewport[1]);
+        return driver;
+    }
+
+    private static class PooledDriver {
+        private final WebDriver driver;
+        private int uses;
+        private Instant lastReturnedAt = Instant.now();
+
+        PooledDriver(WebDriver driver) {
+            this.driver = driver;
+        }
+    }
+}
@@ -2,12 +2,14 @@ package com.ensyferum.inscrepper.web;
 
 import com.ensyferum.inscrepper.model.Profile;
 import com.ensyferum.inscrepper.service.ProfileService;
+import com.ensyferum.inscrepper.service.ScrapeExecutor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.List;
 import java.util.UUID;
@@ -16,9 +18,11 @@ import java.util.UUID;
 public class AdminController {
 
     private final ProfileService profileService;
+    private final ScrapeExecutor scrapeExecutor;
 
-    public AdminController(ProfileService profileService) {
+    public AdminController(ProfileService profileService, ScrapeExecutor scrapeExecutor) {
         this.profileService = profileService;
+        this.scrapeExecutor = scrapeExecutor;
     }
 
     @GetMapping("/admin")
@@ -47,4 +51,13 @@ public class AdminController {
         profileService.delete(id);
         return "redirect:/admin";
     }
+
+    @PostMapping("/admin/scrape-all")
+    public String scrapeAll(RedirectAttributes redirectAttributes) {
+        ScrapeExecutor.BatchSubmission submission = scrapeExecutor.scrapeAllActive();
+        redirectAttributes.addFlashAttribute("success", String.format(
+                "🚀 %d perfis enfileirados para scraping (%d já em andamento)",
+                submission.queued(), submission.skipped()));
+        return "redirect:/admin";
+    }
 }
@@ -1,27 +1,47 @@
 package com.ensyferum.inscrepper.web;
 
-import com.ensyferum.inscrepper.model.Content;
 import com.ensyferum.inscrepper.model.Profile;
+import com.ensyferum.inscrepper.model.ScrapeJob;
+import com.ensyferum.inscrepper.repository.ContentImageView;
 import com.ensyferum.inscrepper.repository.ContentRepository;
+import com.ensyferum.inscrepper.repository.ContentStats;
+import com.ensyferum.inscrepper.repository.ContentSummary;
+import com.ensyferum.inscrepper.service.ContentAnalyticsService;
+import com.ensyferum.inscrepper.service.ContentAnalyticsService.ProfileAnalytics;
+import com.ensyferum.inscrepper.service.MediaMigrationService;
+import com.ensyferum.inscrepper.service.MediaStore;
 import com.ensyferum.inscrepper.service.ProfileService;
-import com.ensyferum.inscrepper.service.ScrapingService;
+import com.ensyferum.inscrepper.service.ScrapeJobService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Controller
@@ -30,8 +50,22 @@ import java.util.UUID;
 public class ProfileController {
 
     private final ProfileService profileService;
-    private final ScrapingService scrapingService;
+    private final ScrapeJobService scrapeJobService;
     private final ContentRepository contentRepository;
+    private final ContentAnalyticsService contentAnalyticsService;
+    private final MediaStore mediaStore;
+    private final MediaMigrationService mediaMigrationService;
+
+    private static final String TOMCAT_SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String TOMCAT_SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String TOMCAT_SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String TOMCAT_SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final int MAX_PAGE_SIZE = 60;
+    // profile.id primeiro casa com idx_contents_profile_collected (ver ContentRepository.findSummariesAfter)
+    private static final Sort LATEST_FIRST = Sort.by(Sort.Order.asc("profile.id"), Sort.Order.desc("collectedAt"),
+            Sort.Order.desc("id"));
+    private static final CacheControl IMAGE_CACHE_CONTROL =
+            CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
 
     @GetMapping
     public String listProfiles(Model model,
@@ -58,80 +92,53 @@ public class ProfileController {
         
         Profile profile = profileOpt.get();
         
-        // Buscar conteúdos do perfil
-        List<Content> contents = contentRepository.findByProfile(profile);
+        // Apenas os 6 posts mais recentes, via projeção (sem caption nem mídia)
+        List<ContentSummary> contents = contentRepository.findSummariesByProfile(profile,
+                PageRequest.of(0, 6, LATEST_FIRST)).getContent();
         
-        // Estatísticas
-        long totalPosts = contents.size();
-        long postsWithImages = contents.stream()
-                .mapToLong(c -> c.getImageBlob() != null ? 1 : 0)
-                .sum();
+        // Estatísticas agregadas em uma única query
+        ContentStats stats = contentRepository.aggregateByProfile(profile);
         
         model.addAttribute("profile", profile);
         model.addAttribute("contents", contents);
-        model.addAttribute("totalPosts", totalPosts);
-        model.addAttribute("postsWithImages", postsWithImages);
+        model.addAttribute("totalPosts", stats.getTotal());
+        model.addAttribute("postsWithImages", stats.getWithImage());
+        model.addAttribute("latestJob", scrapeJobService.findLatestForProfile(id).orElse(null));
         
         return "profiles/detail";
     }
 
     @PostMapping("/{id}/scrape")
     public String executeScraping(@PathVariable UUID id, 
-                                 @RequestParam(defaultValue = "enhanced") String type,
+                                 @RequestParam(defaultValue = "auto") String type,
                                  RedirectAttributes redirectAttributes) {
-        try {
-            Optional<Profile> profileOpt = profileService.findById(id);
-            
-            if (profileOpt.isEmpty()) {
-                redirectAttributes.addFlashAttribute("error", "Perfil não encontrado");
-                return "redirect:/profiles";
-            }
-            
-            Profile profile = profileOpt.get();
-            
-            log.info("🚀 Iniciando scraping {} para o perfil: @{}", type, profile.getUsername());
-            
-            List<Content> scrapedContents;
-            
-            if ("enhanced".equals(type)) {
-                scrapedContents = profileService.scrapeProfile(id);
-                log.info("✅ Enhanced scraping executado para @{}", profile.getUsername());
-            } else {
-                scrapedContents = scrapingService.scrapeAndSaveProfile(profile);
-                log.info("✅ Scraping básico executado para @{}", profile.getUsername());
-            }
-            
-            String message = String.format("🎯 Scraping %s concluído! %d novos posts foram capturados para @%s", 
-                    type, scrapedContents.size(), profile.getUsername());
-            
-            redirectAttributes.addFlashAttribute("success", message);
-            
-        } catch (Exception e) {
-            log.error("❌ Erro durante o scraping {}: {}", type, e.getMessage(), e);
-            redirectAttributes.addFlashAttribute("error", 
-                String.format("Erro no scraping %s: %s", type, e.getMessage()));
-        }
-        
-        return "redirect:/profiles/" + id;
+        return enqueueScraping(id, type, redirectAttributes);
     }
     
     @PostMapping("/{id}/scrape-enhanced")
     public String executeEnhancedScraping(@PathVariable UUID id, RedirectAttributes redirectAttributes) {
+        return enqueueScraping(id, "enhanced", redirectAttributes);
+    }
+
+    // O scraping roda no ScrapeExecutor; a requisição só registra o job e retorna
+    private String enqueueScraping(UUID id, String type, RedirectAttributes redirectAttributes) {
         try {
-            log.info("🚀 Iniciando Enhanced Scraping para perfil ID: {}", id);
-            
-            List<Content> scrapedContents = profileService.scrapeProfile(id);
+            ScrapeJob job = scrapeJobService.enqueue(id, type);
             
-            String message = String.format("🎯 Enhanced Scraping concluído! %d novos posts foram capturados", 
-                    scrapedContents.size());
+            log.info("📥 Scraping {} enfileirado para @{} (job {})", type, job.getUsername(), job.getId());
+            redirectAttributes.addFlashAttribute("success", String.format(
+                    "🎯 Scraping %s enfileirado para @%s. Acompanhe o status do job abaixo.",
+                    type, job.getUsername()));
             
-            redirectAttributes.addFlashAttribute("success", message);
-            log.info("✅ Enhanced scraping concluído com {} posts", scrapedContents.size());
-            
-        } catch (Exception e) {
-            log.error("❌ Erro no Enhanced Scraping: {}", e.getMessage(), e);
-            redirectAttributes.addFlashAttribute("error", 
-                "Erro no Enhanced Scraping: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            // Perfil inexistente volta para a lista; estratégia desconhecida volta para o perfil com o motivo
+            if (profileService.findById(id).isEmpty()) {
+                redirectAttributes.addFlashAttribute("error", "Perfil não encontrado");
+                return "redirect:/profiles";
+            }
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+        } catch (IllegalStateException e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
         }
         
         return "redirect:/profiles/" + id;
@@ -140,7 +147,9 @@ public class ProfileController {
     @GetMapping("/{id}/posts")
     public String viewPosts(@PathVariable UUID id, Model model,
                            @RequestParam(defaultValue = "0") int page,
-                           @RequestParam(defaultValue = "12") int size) {
+                           @RequestParam(defaultValue = "12") int size,
+                           @RequestParam(required = false) Instant afterAt,
+                           @RequestParam(required = false) UUID afterId) {
         
         Optional<Profile> profileOpt = profileService.findById(id);
         
@@ -149,26 +158,43 @@ public class ProfileController {
         }
         
         Profile profile = profileOpt.get();
-        List<Content> contents = contentRepository.findByProfile(profile);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int currentPage = Math.max(0, page);
+        
+        List<ContentSummary> contents;
+        long totalPosts;
         
-        // Simular paginação (você pode implementar paginação no repository depois)
-        int start = page * size;
-        int end = Math.min(start + size, contents.size());
-        List<Content> pagedContents = contents.subList(start, end);
+        if (afterAt != null && afterId != null) {
+            // Keyset: continua a partir do último item visto, sem OFFSET
+            contents = contentRepository.findSummariesAfter(profile, afterAt, afterId, Limit.of(pageSize));
+            totalPosts = contentRepository.countByProfile(profile);
+        } else {
+            Page<ContentSummary> contentPage = contentRepository.findSummariesByProfile(profile,
+                    PageRequest.of(currentPage, pageSize, LATEST_FIRST));
+            contents = contentPage.getContent();
+            totalPosts = contentPage.getTotalElements();
+        }
         
-        int totalPages = (int) Math.ceil((double) contents.size() / size);
+        int totalPages = (int) Math.ceil((double) totalPosts / pageSize);
         
         model.addAttribute("profile", profile);
-        model.addAttribute("contents", pagedContents);
-        model.addAttribute("currentPage", page);
+        model.addAttribute("contents", contents);
+        model.addAttribute("currentPage", currentPage);
         model.addAttribute("totalPages", totalPages);
-        model.addAttribute("totalPosts", contents.size());
+        model.addAttribute("totalPosts", totalPosts);
+        
+        if (!contents.isEmpty()) {
+            ContentSummary last = contents.get(contents.size() - 1);
+            model.addAttribute("nextAfterAt", last.getCollectedAt());
+            model.addAttribute("nextAfterId", last.getId());
+        }
         
         return "profiles/posts";
     }
 
     @GetMapping("/{id}/analytics")
-    public String viewAnalytics(@PathVariable UUID id, Model model) {
+    public String viewAnalytics(@PathVariable UUID id, Model model,
+                               @RequestParam(defaultValue = "90") int days) {
         Optional<Profile> profileOpt = profileService.findById(id);
         
         if (profileOpt.isEmpty()) {
@@ -176,53 +202,87 @@ public class ProfileController {
         }
         
         Profile profile = profileOpt.get();
-        List<Content> contents = contentRepository.findByProfile(profile);
-        
-        // Estatísticas básicas
-        long totalPosts = contents.size();
-        long postsWithImages = contents.stream()
-                .mapToLong(c -> c.getImageBlob() != null ? 1 : 0)
-                .sum();
-        
-        double imagePercentage = totalPosts > 0 ? (double) postsWithImages / totalPosts * 100 : 0;
-        
-        // Análise de captions
-        long postsWithCaption = contents.stream()
-                .mapToLong(c -> c.getCaption() != null && !c.getCaption().trim().isEmpty() ? 1 : 0)
-                .sum();
-        
-        double captionPercentage = totalPosts > 0 ? (double) postsWithCaption / totalPosts * 100 : 0;
+        ProfileAnalytics analytics = contentAnalyticsService.analyze(profile, days);
         
         model.addAttribute("profile", profile);
-        model.addAttribute("totalPosts", totalPosts);
-        model.addAttribute("postsWithImages", postsWithImages);
-        model.addAttribute("imagePercentage", String.format("%.1f", imagePercentage));
-        model.addAttribute("postsWithCaption", postsWithCaption);
-        model.addAttribute("captionPercentage", String.format("%.1f", captionPercentage));
+        model.addAttribute("totalPosts", analytics.totalPosts());
+        model.addAttribute("postsWithImages", analytics.postsWithImages());
+        model.addAttribute("imagePercentage", String.format("%.1f", analytics.imagePercentage()));
+        model.addAttribute("postsWithCaption", analytics.postsWithCaption());
+        model.addAttribute("captionPercentage", String.format("%.1f", analytics.captionPercentage()));
+        model.addAttribute("noCaptionPercentage", String.format("%.1f",
+                analytics.totalPosts() > 0 ? 100 - analytics.captionPercentage() : 0));
+        model.addAttribute("postsByType", analytics.byType());
+        model.addAttribute("days", analytics.days());
+        model.addAttribute("seriesLabels", analytics.labels().stream().map(LocalDate::toString).toList());
+        model.addAttribute("collectedPerDay", analytics.collectedPerDay());
+        model.addAttribute("publishedPerDay", analytics.publishedPerDay());
+        model.addAttribute("postsPerWeek", String.format("%.1f", analytics.postsPerWeek()));
         
         return "profiles/analytics";
     }
 
     @GetMapping("/image/{contentId}")
-    public ResponseEntity<byte[]> getImage(@PathVariable UUID contentId) {
-        Optional<Content> contentOpt = contentRepository.findById(contentId);
+    public ResponseEntity<Resource> getImage(@PathVariable UUID contentId,
+                                             ServletWebRequest webRequest) throws IOException {
+        Optional<ContentImageView> imageOpt = contentRepository.findImageById(contentId);
         
-        if (contentOpt.isEmpty() || contentOpt.get().getImageBlob() == null) {
+        if (imageOpt.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         
-        Content content = contentOpt.get();
+        ContentImageView image = imageOpt.get();
+        String hash = image.getImageHash();
         
-        HttpHeaders headers = new HttpHeaders();
+        // Linha ainda com blob legado: migra sob demanda (stream do LOB direto para o disco)
+        if (hash == null) {
+            hash = mediaMigrationService.migrateOne(contentId)
+                    .map(MediaStore.StoredMedia::hash)
+                    .orElse(null);
+        }
         
-        if (content.getImageMimeType() != null) {
-            headers.setContentType(MediaType.parseMediaType(content.getImageMimeType()));
-        } else {
-            headers.setContentType(MediaType.IMAGE_JPEG);
+        if (hash == null || !mediaStore.exists(hash)) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        // Conteúdo endereçado por hash: o ETag forte é o próprio hash e o arquivo nunca muda
+        String etag = "\"" + hash + "\"";
+        long lastModified = image.getCollectedAt() != null ? image.getCollectedAt().toEpochMilli() : -1;
+        
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+        
+        Path file = mediaStore.resolve(hash);
+        MediaType contentType = image.getImageMimeType() != null
+                ? MediaType.parseMediaType(image.getImageMimeType())
+                : MediaType.IMAGE_JPEG;
+        
+        HttpServletRequest request = webRequest.getRequest();
+        HttpServletResponse response = webRequest.getResponse();
+        
+        // Sem Range: sendfile do Tomcat (zero-copy do arquivo para o socket)
+        if (response != null && "GET".equals(request.getMethod())
+                && request.getHeader(HttpHeaders.RANGE) == null
+                && Boolean.TRUE.equals(request.getAttribute(TOMCAT_SENDFILE_SUPPORT))) {
+            long length = Files.size(file);
+            response.setContentType(contentType.toString());
+            response.setContentLengthLong(length);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, IMAGE_CACHE_CONTROL.getHeaderValue());
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            request.setAttribute(TOMCAT_SENDFILE_FILENAME, file.toString());
+            request.setAttribute(TOMCAT_SENDFILE_START, 0L);
+            request.setAttribute(TOMCAT_SENDFILE_END, length);
+            return null;
         }
         
+        // Range (206) e demais casos: o Spring converte o Resource em ResourceRegion
         return ResponseEntity.ok()
-                .headers(headers)
-                .body(content.getImageBlob());
+                .contentType(contentType)
+                .eTag(etag)
+                .lastModified(lastModified)
+                .cacheControl(IMAGE_CACHE_CONTROL)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .body(new FileSystemResource(file));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,59 @@
+-- Esquema atual das entidades, no ponto em que o Flyway assumiu do ddl-auto=update.
+-- Bancos já existentes são marcados nesta versão (baseline-on-migrate); a V2 completa os mais antigos.
+
+create table profiles (
+    id uuid not null,
+    username varchar(100) not null,
+    display_name varchar(150),
+    active boolean not null,
+    created_at timestamp(6) with time zone not null,
+    updated_at timestamp(6) with time zone not null,
+    last_scraped_at timestamp(6) with time zone,
+    preferred_tier varchar(20),
+    preferred_tier_since timestamp(6) with time zone,
+    primary key (id),
+    constraint uk_profiles_username unique (username)
+);
+
+create table contents (
+    id uuid not null,
+    profile_id uuid not null,
+    external_id varchar(100) not null,
+    url varchar(500),
+    media_url varchar(500),
+    caption text,
+    type varchar(20) not null,
+    collected_at timestamp(6) with time zone not null,
+    published_at timestamp(6) with time zone,
+    like_count bigint,
+    comment_count bigint,
+    thumbnail_path varchar(500),
+    media_path varchar(500),
+    image_hash varchar(64),
+    image_size bigint,
+    image_mime_type varchar(100),
+    primary key (id),
+    constraint uk_contents_external_id unique (external_id),
+    constraint fk_contents_profile foreign key (profile_id) references profiles (id)
+);
+
+create index idx_contents_profile on contents (profile_id);
+create index idx_contents_externalId on contents (external_id);
+
+create table scrape_jobs (
+    id uuid not null,
+    profile_id uuid not null,
+    username varchar(100),
+    strategy varchar(30) not null,
+    status varchar(20) not null,
+    created_at timestamp(6) with time zone not null,
+    started_at timestamp(6) with time zone,
+    finished_at timestamp(6) with time zone,
+    duration_ms bigint,
+    posts_found integer,
+    error_message varchar(1000),
+    primary key (id)
+);
+
+create index idx_scrape_jobs_profile on scrape_jobs (profile_id);
+create index idx_scrape_jobs_status on scrape_jobs (status);
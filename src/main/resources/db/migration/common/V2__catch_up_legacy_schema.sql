@@ -0,0 +1,31 @@
+-- Bancos criados antes do Flyway por versões antigas do ddl-auto=update podem não ter tudo da V1
+-- (são marcados como V1 pelo baseline sem rodá-la). Traz esses bancos ao esquema da V1;
+-- num banco criado pela V1 todos os comandos são no-op.
+
+alter table profiles add column if not exists last_scraped_at timestamp(6) with time zone;
+alter table profiles add column if not exists preferred_tier varchar(20);
+alter table profiles add column if not exists preferred_tier_since timestamp(6) with time zone;
+
+alter table contents add column if not exists like_count bigint;
+alter table contents add column if not exists comment_count bigint;
+alter table contents add column if not exists image_hash varchar(64);
+alter table contents add column if not exists image_size bigint;
+alter table contents add column if not exists image_mime_type varchar(100);
+
+create table if not exists scrape_jobs (
+    id uuid not null,
+    profile_id uuid not null,
+    username varchar(100),
+    strategy varchar(30) not null,
+    status varchar(20) not null,
+    created_at timestamp(6) with time zone not null,
+    started_at timestamp(6) with time zone,
+    finished_at timestamp(6) with time zone,
+    duration_ms bigint,
+    posts_found integer,
+    error_message varchar(1000),
+    primary key (id)
+);
+
+create index if not exists idx_scrape_jobs_profile on scrape_jobs (profile_id);
+create index if not exists idx_scrape_jobs_status on scrape_jobs (status);
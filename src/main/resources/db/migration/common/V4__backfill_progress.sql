@@ -0,0 +1,14 @@
+-- Progresso dos backfills em lote (BackfillRunner): um restart retoma do cursor salvo
+
+create table backfill_progress (
+    name varchar(100) not null,
+    status varchar(20) not null,
+    rows_done bigint not null,
+    chunks bigint not null,
+    cursor_value varchar(200),
+    started_at timestamp(6) with time zone,
+    finished_at timestamp(6) with time zone,
+    updated_at timestamp(6) with time zone not null,
+    last_error varchar(1000),
+    primary key (name)
+);
@@ -0,0 +1,9 @@
+-- Linha do tempo e analytics por perfil: filtro por profile_id já na ordem pedida, sem sort.
+-- O H2 não tem INCLUDE: as colunas da listagem (ContentSummary) vão no fim da chave para o índice
+-- cobrir a consulta; sem isso o otimizador prefere o índice da FK e ordena em memória.
+-- idx_contents_profile fica: no H2 a FK fk_contents_profile pode estar usando esse índice.
+
+create index idx_contents_profile_collected on contents (profile_id, collected_at desc, id desc,
+    external_id, url, type, published_at, image_size, image_hash);
+create index idx_contents_profile_published on contents (profile_id, published_at desc);
+create index idx_contents_profile_type on contents (profile_id, type);
@@ -0,0 +1,10 @@
+-- Linha do tempo e analytics por perfil: filtro por profile_id já na ordem pedida, sem sort.
+-- A listagem (ContentSummary) é coberta pelo índice da linha do tempo: index-only scan, sem heap.
+-- (profile_id) sozinho vira redundante, é prefixo de todos.
+
+create index idx_contents_profile_collected on contents (profile_id, collected_at desc, id desc)
+    include (external_id, url, type, published_at, image_size, image_hash);
+create index idx_contents_profile_published on contents (profile_id, published_at desc);
+create index idx_contents_profile_type on contents (profile_id, type);
+
+drop index idx_contents_profile;
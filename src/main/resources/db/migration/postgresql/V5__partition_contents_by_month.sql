@@ -0,0 +1,148 @@
+-- contents particionada por mês de collected_at (RANGE, UTC): linha do tempo, analytics e retenção
+-- filtram por collected_at e só tocam as partições recentes; partição velha sai com DROP, sem DELETE
+-- (as chaves dela saem de content_keys por collected_at).
+--
+-- Em tabela particionada todo UNIQUE precisa incluir a chave de partição, então a unicidade do
+-- external_id (antes uk_contents_external_id) passa para content_keys, mantida por trigger.
+-- A PK vira (id, collected_at); para o JPA o id continua sendo o identificador.
+--
+-- Conversão única, com a tabela travada durante a cópia: rodar antes do deploy com --migrate-only.
+-- Partições dos próximos meses são criadas pelo ContentPartitionMaintainer; contents_default
+-- só recebe o que chegar antes disso e é redistribuída quando a partição do mês é criada.
+
+set local lock_timeout = '5s';
+
+alter table contents rename to contents_unpartitioned;
+
+create table contents (
+    id uuid not null,
+    profile_id uuid not null,
+    external_id varchar(100) not null,
+    url varchar(500),
+    media_url varchar(500),
+    caption text,
+    type varchar(20) not null,
+    collected_at timestamp(6) with time zone not null,
+    published_at timestamp(6) with time zone,
+    like_count bigint,
+    comment_count bigint,
+    thumbnail_path varchar(500),
+    media_path varchar(500),
+    image_hash varchar(64),
+    image_size bigint,
+    image_mime_type varchar(100),
+    constraint pk_contents primary key (id, collected_at),
+    constraint fk_contents_profile foreign key (profile_id) references profiles (id)
+) partition by range (collected_at);
+
+create table contents_default partition of contents default;
+
+-- Banco antigo com imagens ainda não extraídas: a coluna legada vem junto (backfill media-blobs)
+do $$
+begin
+    if exists (select 1 from information_schema.columns where table_schema = current_schema()
+               and table_name = 'contents_unpartitioned' and column_name = 'image_blob') then
+        alter table contents add column image_blob bytea;
+    end if;
+end $$;
+
+create table content_keys (
+    external_id varchar(100) not null,
+    content_id uuid not null,
+    collected_at timestamp(6) with time zone not null,
+    constraint pk_content_keys primary key (external_id)
+);
+
+-- Uma partição por mês entre from_ts e to_ts; devolve quantas criou.
+-- Linhas do mês que já caíram na default são movidas antes do ATTACH (senão ele falha).
+create or replace function ensure_contents_partitions(from_ts timestamptz, to_ts timestamptz)
+returns integer language plpgsql as $$
+declare
+    month_start timestamp := date_trunc('month', from_ts at time zone 'UTC');
+    month_end timestamp;
+    lower_bound timestamptz;
+    upper_bound timestamptz;
+    part text;
+    created integer := 0;
+begin
+    while month_start <= to_ts at time zone 'UTC' loop
+        month_end := month_start + interval '1 month';
+        lower_bound := month_start at time zone 'UTC';
+        upper_bound := month_end at time zone 'UTC';
+        part := 'contents_' || to_char(month_start, 'YYYY_MM');
+        if to_regclass(quote_ident(part)) is null then
+            execute format('create table %I (like contents including defaults)', part);
+            execute format('insert into %I select * from contents_default where collected_at >= %L and collected_at < %L',
+                           part, lower_bound, upper_bound);
+            execute format('delete from contents_default where collected_at >= %L and collected_at < %L',
+                           lower_bound, upper_bound);
+            execute format('alter table contents attach partition %I for values from (%L) to (%L)',
+                           part, lower_bound, upper_bound);
+            -- O DELETE na default apagou as chaves das linhas movidas (trigger de delete)
+            execute format('insert into content_keys (external_id, content_id, collected_at) ' ||
+                           'select external_id, id, collected_at from %I on conflict (external_id) do nothing', part);
+            created := created + 1;
+        end if;
+        month_start := month_end;
+    end loop;
+    return created;
+end $$;
+
+select ensure_contents_partitions(coalesce((select min(collected_at) from contents_unpartitioned), now()),
+                                  now() + interval '3 months');
+
+-- Cópia só das colunas que existem nas duas tabelas (bancos legados podem ter a mais ou a menos)
+do $$
+declare
+    column_list text;
+begin
+    select string_agg(quote_ident(src.column_name), ', ' order by src.ordinal_position) into column_list
+    from information_schema.columns src
+    join information_schema.columns dst on dst.table_schema = src.table_schema
+        and dst.table_name = 'contents' and dst.column_name = src.column_name
+    where src.table_schema = current_schema() and src.table_name = 'contents_unpartitioned';
+    execute format('insert into contents (%s) select %s from contents_unpartitioned', column_list, column_list);
+end $$;
+
+insert into content_keys (external_id, content_id, collected_at)
+select external_id, id, collected_at from contents_unpartitioned;
+
+drop table contents_unpartitioned;
+
+-- Mesmos índices da V3 (criados por partição; CONCURRENTLY não existe para tabela particionada)
+create index idx_contents_profile_collected
+    on contents (profile_id, collected_at desc, id desc)
+    include (external_id, url, type, published_at, image_size, image_hash);
+create index idx_contents_profile_published on contents (profile_id, published_at desc);
+create index idx_contents_profile_type on contents (profile_id, type);
+create index idx_contents_externalId on contents (external_id);
+
+create index idx_content_keys_collected on content_keys (collected_at);
+
+-- Unicidade do external_id: reserva a chave a cada insert. Quem já reservou com o mesmo id
+-- (ContentBulkWriter reserva em lote antes de inserir) passa; outro id é violação de unicidade,
+-- como era com uk_contents_external_id.
+create or replace function contents_reserve_key() returns trigger language plpgsql as $$
+begin
+    insert into content_keys (external_id, content_id, collected_at)
+    values (new.external_id, new.id, new.collected_at)
+    on conflict (external_id) do nothing;
+    if not found and not exists (select 1 from content_keys
+                                 where external_id = new.external_id and content_id = new.id) then
+        raise exception 'duplicate key value violates unique constraint "uk_contents_external_id"'
+            using errcode = 'unique_violation', constraint = 'uk_contents_external_id',
+                  detail = format('Key (external_id)=(%s) already exists.', new.external_id);
+    end if;
+    return null;
+end $$;
+
+create or replace function contents_release_key() returns trigger language plpgsql as $$
+begin
+    delete from content_keys where external_id = old.external_id and content_id = old.id;
+    return null;
+end $$;
+
+create trigger trg_contents_reserve_key after insert on contents
+    for each row execute function contents_reserve_key();
+create trigger trg_contents_release_key after delete on contents
+    for each row execute function contents_release_key();
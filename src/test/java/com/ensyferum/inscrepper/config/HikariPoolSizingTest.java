@@ -0,0 +1,65 @@
+package com.ensyferum.inscrepper.config;
+
+import com.ensyferum.inscrepper.service.ContentPartitionMaintainer;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class HikariPoolSizingTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ContentPartitionMaintainer partitionMaintainer;
+
+    @Test
+    public void testSizesPoolFromWorkersWebThreadsAndBackground() {
+        HikariPoolSizing sizing = new HikariPoolSizing(3, 20, 2, 40, 0);
+        HikariDataSource hikari = new HikariDataSource();
+
+        sizing.postProcessAfterInitialization(hikari, "dataSource");
+
+        assertEquals(25, hikari.getMaximumPoolSize());
+        assertEquals(5, hikari.getMinimumIdle());
+    }
+
+    @Test
+    public void testCapsPoolAtMaxSize() {
+        HikariPoolSizing sizing = new HikariPoolSizing(8, 200, 2, 40, 0);
+        assertEquals(40, sizing.poolSize());
+    }
+
+    @Test
+    public void testExplicitPoolSizeWins() {
+        HikariPoolSizing sizing = new HikariPoolSizing(3, 20, 2, 40, 7);
+        HikariDataSource hikari = new HikariDataSource();
+        hikari.setMaximumPoolSize(7);
+
+        sizing.postProcessAfterInitialization(hikari, "dataSource");
+
+        assertEquals(7, hikari.getMaximumPoolSize());
+    }
+
+    @Test
+    public void testApplicationDataSourceIsSized() {
+        // Perfil de teste: 3 workers + 200 threads do Tomcat (padrão) + 2, limitado ao teto padrão de 20
+        HikariDataSource hikari = assertInstanceOf(HikariDataSource.class, dataSource);
+        assertEquals(20, hikari.getMaximumPoolSize());
+    }
+
+    @Test
+    public void testPartitionMaintenanceIsNoOpOnH2() {
+        // Particionamento só existe na migration do PostgreSQL (ver PostgresPartitioningTest)
+        assertFalse(partitionMaintainer.isPartitioned());
+        assertEquals(0, partitionMaintainer.ensurePartitions());
+    }
+}
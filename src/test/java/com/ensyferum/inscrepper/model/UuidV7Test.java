@@ -0,0 +1,48 @@
+package com.ensyferum.inscrepper.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UuidV7Test {
+
+    @Test
+    public void testVersionVariantAndTimestamp() {
+        long now = Instant.parse("2025-01-15T10:30:00Z").toEpochMilli();
+        UUID uuid = UuidV7.next(now);
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertTrue(UuidV7.timestampOf(uuid).toEpochMilli() >= now);
+        assertThrows(IllegalArgumentException.class, () -> UuidV7.timestampOf(UUID.randomUUID()));
+    }
+
+    @Test
+    public void testIdsSortInGenerationOrderEvenWithinSameMillisecond() {
+        List<String> generated = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            generated.add(UuidV7.next().toString());
+        }
+
+        // A forma textual ordena como os bytes, que é como H2 e PostgreSQL comparam UUID
+        List<String> sorted = new ArrayList<>(generated);
+        sorted.sort(null);
+        assertEquals(sorted, generated);
+        assertEquals(generated.size(), new HashSet<>(generated).size());
+    }
+
+    @Test
+    public void testClockGoingBackwardsStillIncreases() {
+        long now = System.currentTimeMillis() + 60_000;
+        UUID later = UuidV7.next(now);
+        UUID earlierClock = UuidV7.next(now - 5_000);
+
+        assertTrue(earlierClock.toString().compareTo(later.toString()) > 0);
+    }
+}
@@ -0,0 +1,120 @@
+package com.ensyferum.inscrepper.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BackfillRunnerTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void testRunsInChunksAndSkipsWhenDone() {
+        CountingBackfill backfill = new CountingBackfill("count-" + System.nanoTime(), 25);
+        BackfillRunner runner = runner(backfill);
+
+        assertTrue(runner.runAll());
+
+        BackfillRunner.Progress progress = runner.status().get(0);
+        assertEquals(BackfillRunner.Status.DONE, progress.status());
+        assertEquals(25, progress.rowsDone());
+        assertEquals(3, progress.chunks());
+        assertNotNull(progress.finishedAt());
+        assertEquals(List.of("null", "10", "20"), backfill.cursors);
+
+        // Já concluído: nem chama o backfill de novo
+        assertTrue(runner.runAll());
+        assertEquals(3, backfill.cursors.size());
+    }
+
+    @Test
+    public void testFailureKeepsCursorAndNextRunResumes() {
+        CountingBackfill backfill = new CountingBackfill("resume-" + System.nanoTime(), 25);
+        backfill.failAt = "10";
+        BackfillRunner runner = runner(backfill);
+
+        assertFalse(runner.runAll());
+
+        BackfillRunner.Progress failed = runner.status().get(0);
+        assertEquals(BackfillRunner.Status.FAILED, failed.status());
+        assertEquals(10, failed.rowsDone());
+        assertEquals("10", failed.cursor());
+        assertTrue(failed.lastError().contains("lote 10"));
+
+        backfill.failAt = null;
+        assertTrue(runner.runAll());
+
+        BackfillRunner.Progress done = runner.status().get(0);
+        assertEquals(BackfillRunner.Status.DONE, done.status());
+        assertEquals(25, done.rowsDone());
+        assertNull(done.lastError());
+        // Retomou do cursor salvo, sem refazer o primeiro lote
+        assertEquals(List.of("null", "10", "10", "20"), backfill.cursors);
+    }
+
+    @Test
+    public void testNothingPendingIsNotRecorded() {
+        CountingBackfill backfill = new CountingBackfill("idle-" + System.nanoTime(), 5);
+        backfill.pending = false;
+        BackfillRunner runner = runner(backfill);
+
+        assertTrue(runner.runAll());
+
+        assertTrue(backfill.cursors.isEmpty());
+        assertEquals(BackfillRunner.Status.PENDING, runner.status().get(0).status());
+    }
+
+    private BackfillRunner runner(Backfill backfill) {
+        return new BackfillRunner(List.of(backfill), jdbcTemplate, transactionManager, false, 10, Duration.ZERO);
+    }
+
+    // "Processa" total itens usando a posição como cursor
+    private static class CountingBackfill implements Backfill {
+        private final String name;
+        private final int total;
+        final List<String> cursors = new ArrayList<>();
+        String failAt;
+        boolean pending = true;
+
+        CountingBackfill(String name, int total) {
+            this.name = name;
+            this.total = total;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public boolean pending() {
+            return pending;
+        }
+
+        @Override
+        public Chunk runChunk(String cursor, int chunkSize) {
+            cursors.add(String.valueOf(cursor));
+            if (cursor != null && cursor.equals(failAt)) {
+                throw new IllegalStateException("falha no lote " + cursor);
+            }
+            int from = cursor == null ? 0 : Integer.parseInt(cursor);
+            int to = Math.min(total, from + chunkSize);
+            return new Chunk(to - from, String.valueOf(to), to >= total);
+        }
+    }
+}
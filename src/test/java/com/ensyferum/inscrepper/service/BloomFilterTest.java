@@ -0,0 +1,51 @@
+package com.ensyferum.inscrepper.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BloomFilterTest {
+
+    @Test
+    public void testNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("C" + i + "xYz");
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("C" + i + "xYz"));
+        }
+        // Inserções que não ligam nenhum bit novo (falsos positivos) não entram na contagem
+        assertTrue(filter.insertions() > 9_900 && filter.insertions() <= 10_000);
+    }
+
+    @Test
+    public void testFalsePositiveRateNearTarget() {
+        BloomFilter filter = new BloomFilter(20_000, 0.01);
+        for (int i = 0; i < 20_000; i++) {
+            filter.put("known-" + i);
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("unknown-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        double observed = (double) falsePositives / probes;
+        assertTrue(observed < 0.02, "FPR observado muito alto: " + observed);
+        assertEquals(observed, filter.estimatedFpp(), 0.01);
+    }
+
+    @Test
+    public void testSizingFollowsTarget() {
+        BloomFilter filter = new BloomFilter(1_000_000, 0.01);
+
+        // ~9,6 bits por elemento e k=7 para p=1%
+        assertEquals(7, filter.hashFunctions());
+        assertTrue(filter.memoryBytes() > 1_150_000 && filter.memoryBytes() < 1_250_000,
+                "Memória inesperada: " + filter.memoryBytes());
+    }
+}
@@ -0,0 +1,139 @@
+package com.ensyferum.inscrepper.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConditionalPageFetcherTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicReference<String> lastIfNoneMatch = new AtomicReference<>();
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+
+        // Página com ETag: responde 304 quando o cliente manda o mesmo validador
+        server.createContext("/etag", exchange -> {
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            lastIfNoneMatch.set(ifNoneMatch);
+            if ("\"v1\"".equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            respond(exchange, "<html>perfil</html>", "\"v1\"");
+        });
+
+        // Página sem validadores: só o hash do corpo detecta que nada mudou
+        server.createContext("/plain", exchange -> respond(exchange, "<html>igual</html>", null));
+
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private static void respond(HttpExchange exchange, String body, String etag) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        if (etag != null) {
+            exchange.getResponseHeaders().add("ETag", etag);
+        }
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    private ConditionalPageFetcher fetcher(int maxEntries, Clock clock) {
+        HttpFetcher http = new HttpFetcher(Duration.ofSeconds(5), Duration.ofSeconds(5), Duration.ofSeconds(5),
+                2, "test-agent", "pt-BR");
+        return new ConditionalPageFetcher(http, maxEntries, Duration.ofHours(1), clock);
+    }
+
+    @Test
+    public void testSendsValidatorsAndReportsNotModified() {
+        ConditionalPageFetcher fetcher = fetcher(10, Clock.systemUTC());
+
+        ConditionalPageFetcher.PageResult first = fetcher.fetch(baseUrl + "/etag", Map.of());
+        assertEquals(ConditionalPageFetcher.Outcome.CHANGED, first.outcome());
+        assertEquals("<html>perfil</html>", first.body());
+        assertNull(lastIfNoneMatch.get());
+
+        ConditionalPageFetcher.PageResult second = fetcher.fetch(baseUrl + "/etag", Map.of());
+        assertEquals(ConditionalPageFetcher.Outcome.NOT_MODIFIED, second.outcome());
+        assertTrue(second.unchanged());
+        assertEquals("\"v1\"", lastIfNoneMatch.get());
+    }
+
+    @Test
+    public void testDetectsSameBodyByHash() {
+        ConditionalPageFetcher fetcher = fetcher(10, Clock.systemUTC());
+
+        assertEquals(ConditionalPageFetcher.Outcome.CHANGED, fetcher.fetch(baseUrl + "/plain", Map.of()).outcome());
+        assertEquals(ConditionalPageFetcher.Outcome.SAME_CONTENT, fetcher.fetch(baseUrl + "/plain", Map.of()).outcome());
+
+        fetcher.invalidate(baseUrl + "/plain");
+        assertEquals(ConditionalPageFetcher.Outcome.CHANGED, fetcher.fetch(baseUrl + "/plain", Map.of()).outcome());
+    }
+
+    @Test
+    public void testExpiredEntriesForceFullFetch() {
+        AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2024-01-01T00:00:00Z"));
+        Clock clock = new Clock() {
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        };
+        ConditionalPageFetcher fetcher = fetcher(10, clock);
+
+        fetcher.fetch(baseUrl + "/etag", Map.of());
+        now.set(now.get().plus(Duration.ofHours(2)));
+
+        assertEquals(ConditionalPageFetcher.Outcome.CHANGED, fetcher.fetch(baseUrl + "/etag", Map.of()).outcome());
+        assertNull(lastIfNoneMatch.get());
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        ConditionalPageFetcher fetcher = fetcher(1, Clock.systemUTC());
+
+        fetcher.fetch(baseUrl + "/etag", Map.of());
+        fetcher.fetch(baseUrl + "/plain", Map.of());
+
+        // /etag foi despejado pelo LRU, então volta sem validadores
+        assertEquals(ConditionalPageFetcher.Outcome.CHANGED, fetcher.fetch(baseUrl + "/etag", Map.of()).outcome());
+        assertEquals(1, fetcher.stats().entries());
+    }
+}
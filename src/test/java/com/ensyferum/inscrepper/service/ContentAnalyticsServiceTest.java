@@ -0,0 +1,47 @@
+package com.ensyferum.inscrepper.service;
+
+import com.ensyferum.inscrepper.repository.DailyCount;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContentAnalyticsServiceTest {
+
+    @Test
+    public void testFillDaysCompletesGapsWithZero() {
+        LocalDate from = LocalDate.of(2024, 3, 1);
+        LocalDate to = LocalDate.of(2024, 3, 5);
+
+        List<Long> series = ContentAnalyticsService.fillDays(List.of(
+                count(LocalDate.of(2024, 3, 2), 3),
+                count(LocalDate.of(2024, 3, 5), 1)), from, to);
+
+        assertEquals(List.of(0L, 3L, 0L, 0L, 1L), series);
+    }
+
+    @Test
+    public void testFillDaysIgnoresNullDays() {
+        LocalDate day = LocalDate.of(2024, 3, 1);
+
+        List<Long> series = ContentAnalyticsService.fillDays(List.of(count(null, 7), count(day, 2)), day, day);
+
+        assertEquals(List.of(2L), series);
+    }
+
+    private static DailyCount count(LocalDate day, long total) {
+        return new DailyCount() {
+            @Override
+            public Long getEpochDay() {
+                return day == null ? null : day.toEpochDay();
+            }
+
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
+}
@@ -0,0 +1,134 @@
+package com.ensyferum.inscrepper.service;
+
+import com.ensyferum.inscrepper.model.Content;
+import com.ensyferum.inscrepper.model.ContentType;
+import com.ensyferum.inscrepper.model.Profile;
+import com.ensyferum.inscrepper.repository.ContentRepository;
+import com.ensyferum.inscrepper.repository.ProfileRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class ContentBulkWriterTest {
+
+    @Autowired
+    private ContentBulkWriter bulkWriter;
+
+    @Autowired
+    private ContentRepository contentRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Test
+    public void testInsertsAllColumnsInOneCall() {
+        Profile profile = profile("bulk_columns");
+        Instant published = Instant.parse("2024-03-01T12:00:00Z");
+        Content content = content(profile, "bulk-cols");
+        content.setCaption("legenda com acentuação");
+        content.setPublishedAt(published);
+        content.setLikeCount(42L);
+        content.setCommentCount(7L);
+        content.setImageHash("ab".repeat(32));
+        content.setImageSize(1234L);
+        content.setImageMimeType("image/jpeg");
+
+        List<Content> saved = bulkWriter.insertIgnoringExisting(List.of(content));
+
+        assertEquals(1, saved.size());
+        assertEquals(7, saved.get(0).getId().version());
+        assertEquals(7, profile.getId().version());
+        Content stored = contentRepository.findByExternalId("bulk-cols").orElseThrow();
+        assertEquals(saved.get(0).getId(), stored.getId());
+        assertEquals(profile.getId(), stored.getProfile().getId());
+        assertEquals("legenda com acentuação", stored.getCaption());
+        assertEquals(published, stored.getPublishedAt());
+        assertEquals(42L, stored.getLikeCount());
+        assertEquals(7L, stored.getCommentCount());
+        assertEquals(1234L, stored.getImageSize());
+        assertEquals(ContentType.POST, stored.getType());
+    }
+
+    @Test
+    public void testConflictsOnExternalIdAreSkipped() {
+        Profile profile = profile("bulk_conflicts");
+        bulkWriter.insertIgnoringExisting(List.of(content(profile, "bulk-a"), content(profile, "bulk-b")));
+
+        // Outro scrape gravou bulk-b antes; bulk-c aparece duas vezes no próprio lote
+        Content repeated = content(profile, "bulk-c");
+        List<Content> saved = bulkWriter.insertIgnoringExisting(List.of(
+                content(profile, "bulk-b"), content(profile, "bulk-c"), repeated, content(profile, "bulk-d")));
+
+        assertEquals(List.of("bulk-c", "bulk-d"), saved.stream().map(Content::getExternalId).toList());
+        assertNull(repeated.getId());
+        assertEquals(4, contentRepository.countByProfile(profile));
+    }
+
+    @Test
+    public void testLargeBatchSpansSeveralChunks() {
+        Profile profile = profile("bulk_large");
+        List<Content> contents = new ArrayList<>();
+        for (int i = 0; i < 450; i++) {
+            contents.add(content(profile, "bulk-large-" + i));
+        }
+
+        List<Content> saved = bulkWriter.insertIgnoringExisting(contents);
+
+        assertEquals(450, saved.size());
+        assertEquals(450, contentRepository.countByProfile(profile));
+        // Segunda passada inteira já existe
+        assertTrue(bulkWriter.insertIgnoringExisting(contents.subList(0, 10)).isEmpty());
+    }
+
+    private Profile profile(String username) {
+        return profileRepository.save(Profile.builder().username(username).active(true).build());
+    }
+
+    @Test
+    public void testPostgresRowArgsAcceptNullColumns() {
+        // Post típico do HTTP: sem mídia, data, contadores nem imagem
+        Profile profile = Profile.builder().id(UUID.randomUUID()).username("sem_colunas").build();
+        Content bare = Content.builder()
+                .id(UUID.randomUUID())
+                .profile(profile)
+                .externalId("bare-1")
+                .type(ContentType.POST)
+                .collectedAt(Instant.parse("2024-05-01T12:00:00Z"))
+                .build();
+
+        List<Object> args = ContentBulkWriter.rowArgs(List.of(bare, bare));
+
+        assertEquals(32, args.size());
+        assertEquals(bare.getId(), args.get(0));
+        assertEquals(profile.getId(), args.get(1));
+        assertEquals("bare-1", args.get(2));
+        assertNull(args.get(4));
+        assertEquals("POST", args.get(6));
+        assertNull(args.get(8));
+        assertNull(args.get(9));
+        assertEquals(bare.getId(), args.get(16));
+    }
+
+    private static Content content(Profile profile, String externalId) {
+        return Content.builder()
+                .profile(profile)
+                .externalId(externalId)
+                .url("https://www.instagram.com/p/" + externalId + "/")
+                .type(ContentType.POST)
+                .collectedAt(Instant.now().truncatedTo(ChronoUnit.MICROS))
+                .build();
+    }
+}
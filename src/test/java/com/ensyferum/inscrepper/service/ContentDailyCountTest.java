@@ -0,0 +1,101 @@
+package com.ensyferum.inscrepper.service;
+
+import com.ensyferum.inscrepper.model.Content;
+import com.ensyferum.inscrepper.model.ContentType;
+import com.ensyferum.inscrepper.model.Profile;
+import com.ensyferum.inscrepper.repository.ContentRepository;
+import com.ensyferum.inscrepper.repository.DailyCount;
+import com.ensyferum.inscrepper.repository.ProfileRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Séries diárias agrupadas no banco: o dia é o dia UTC, qualquer que seja o fuso da sessão
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class ContentDailyCountTest {
+
+    @Autowired
+    private ContentRepository contentRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void restoreTimeZone() {
+        jdbcTemplate.execute("SET TIME ZONE LOCAL");
+    }
+
+    @Test
+    public void testCollectedPerDayBucketsByUtcAroundMidnight() {
+        Profile profile = profile("daily_collected_utc");
+        save(profile, "daily-c1", Instant.parse("2024-03-01T23:59:00Z"), null);
+        save(profile, "daily-c2", Instant.parse("2024-03-02T00:01:00Z"), null);
+        save(profile, "daily-c3", Instant.parse("2024-03-02T02:30:00Z"), null);
+        save(profile, "daily-c4", Instant.parse("2024-02-29T23:59:00Z"), null);
+
+        // Em São Paulo (UTC-3) as três primeiras cairiam todas em 01/03
+        jdbcTemplate.execute("SET TIME ZONE 'America/Sao_Paulo'");
+
+        Map<LocalDate, Long> days = byDay(contentRepository.countCollectedPerDay(profile,
+                Instant.parse("2024-03-01T00:00:00Z")));
+
+        assertEquals(Map.of(LocalDate.of(2024, 3, 1), 1L, LocalDate.of(2024, 3, 2), 2L), days);
+    }
+
+    @Test
+    public void testPublishedPerDayBucketsByUtcAroundMidnight() {
+        Profile profile = profile("daily_published_utc");
+        Instant collected = Instant.parse("2024-03-10T12:00:00Z");
+        save(profile, "daily-p1", collected, Instant.parse("2024-03-01T23:59:59Z"));
+        save(profile, "daily-p2", collected, Instant.parse("2024-03-02T00:00:00Z"));
+        save(profile, "daily-p3", collected, null);
+
+        // Fuso adiantado: 23:59 UTC já seria o dia seguinte
+        jdbcTemplate.execute("SET TIME ZONE 'Asia/Tokyo'");
+
+        Map<LocalDate, Long> days = byDay(contentRepository.countPublishedPerDay(profile,
+                Instant.parse("2024-03-01T00:00:00Z")));
+
+        assertEquals(Map.of(LocalDate.of(2024, 3, 1), 1L, LocalDate.of(2024, 3, 2), 1L), days);
+    }
+
+    private Map<LocalDate, Long> byDay(List<DailyCount> rows) {
+        Map<LocalDate, Long> days = new LinkedHashMap<>();
+        for (DailyCount row : rows) {
+            days.put(row.getDay(), row.getTotal());
+        }
+        return days;
+    }
+
+    private Profile profile(String username) {
+        return profileRepository.save(Profile.builder().username(username).active(true).build());
+    }
+
+    private void save(Profile profile, String externalId, Instant collectedAt, Instant publishedAt) {
+        contentRepository.save(Content.builder()
+                .profile(profile)
+                .externalId(externalId)
+                .url("https://www.instagram.com/p/" + externalId + "/")
+                .type(ContentType.POST)
+                .collectedAt(collectedAt)
+                .publishedAt(publishedAt)
+                .build());
+    }
+}
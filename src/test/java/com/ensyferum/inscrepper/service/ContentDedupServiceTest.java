@@ -0,0 +1,75 @@
+package com.ensyferum.inscrepper.service;
+
+import com.ensyferum.inscrepper.model.Content;
+import com.ensyferum.inscrepper.model.ContentType;
+import com.ensyferum.inscrepper.model.Profile;
+import com.ensyferum.inscrepper.repository.ProfileRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class ContentDedupServiceTest {
+
+    @Autowired
+    private ContentDedupService contentDedupService;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Test
+    public void testFindExistingAcrossChunks() {
+        Profile profile = profileRepository.save(Profile.builder()
+                .username("dedup_test")
+                .active(true)
+                .build());
+        contentDedupService.saveAll(List.of(content(profile, "dedup-old-1"), content(profile, "dedup-old-2")));
+
+        // Muitos candidatos novos misturados com os já salvos
+        List<String> candidates = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            candidates.add("dedup-new-" + i);
+        }
+        candidates.add(700, "dedup-old-2");
+        candidates.add("dedup-old-1");
+
+        Set<String> existing = contentDedupService.findExisting(candidates);
+
+        assertEquals(Set.of("dedup-old-1", "dedup-old-2"), existing);
+    }
+
+    @Test
+    public void testFilterNewKeepsOrderAndDropsRepeated() {
+        Profile profile = profileRepository.save(Profile.builder()
+                .username("dedup_filter_test")
+                .active(true)
+                .build());
+        contentDedupService.saveAll(List.of(content(profile, "dedup-saved")));
+
+        List<String> fresh = contentDedupService.filterNew(
+                List.of("dedup-b", "dedup-saved", "dedup-a", "dedup-b"), id -> id);
+
+        assertEquals(List.of("dedup-b", "dedup-a"), fresh);
+    }
+
+    private static Content content(Profile profile, String externalId) {
+        return Content.builder()
+                .profile(profile)
+                .externalId(externalId)
+                .url("https://www.instagram.com/p/" + externalId + "/")
+                .type(ContentType.POST)
+                .collectedAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,115 @@
+package com.ensyferum.inscrepper.service;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Benchmark repetível dos planos: o mesmo banco H2 na V2 (antes) e depois da V3 (índices da linha do tempo).
+// Rode com -Dtest=ContentQueryPlanTest para ver os EXPLAINs no console.
+public class ContentQueryPlanTest {
+
+    private static final UUID PROFILE = UUID.fromString("0190a5c4-0000-7000-8000-000000000001");
+
+    // As mesmas consultas que ContentRepository gera para linha do tempo e analytics, em SQL
+    private static final Map<String, String> QUERIES = new LinkedHashMap<>();
+
+    static {
+        QUERIES.put("timeline", "select id, external_id, url, type, collected_at, published_at, image_size, " +
+                "case when image_hash is not null then true else false end from contents " +
+                "where profile_id = '" + PROFILE + "' order by profile_id, collected_at desc, id desc fetch first 20 rows only");
+        QUERIES.put("published", "select cast(floor(extract(epoch from published_at) / 86400) as bigint), count(*) " +
+                "from contents where profile_id = '" + PROFILE + "' and published_at >= timestamp '2024-01-01 00:00:00' " +
+                "group by cast(floor(extract(epoch from published_at) / 86400) as bigint)");
+        QUERIES.put("types", "select type, count(*) from contents where profile_id = '" + PROFILE + "' group by type");
+    }
+
+    @Test
+    public void testTimelineQueriesUseCompositeIndexes() throws SQLException {
+        String url = "jdbc:h2:mem:plans_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1";
+
+        migrate(url, "2");
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            seed(connection);
+            Map<String, String> before = explainAll(connection);
+
+            migrate(url, "latest");
+            Map<String, String> after = explainAll(connection);
+
+            for (String query : QUERIES.keySet()) {
+                System.out.printf("%n== %s ==%nantes:  %s%ndepois: %s%n", query, before.get(query), after.get(query));
+            }
+
+            // Antes: só o índice de profile_id, com sort em cima
+            assertFalse(before.get("timeline").contains("IDX_CONTENTS_PROFILE_COLLECTED"));
+            assertFalse(before.get("timeline").contains("index sorted"));
+
+            // Depois: o índice já entrega na ordem pedida
+            assertTrue(after.get("timeline").contains("IDX_CONTENTS_PROFILE_COLLECTED"), after.get("timeline"));
+            assertTrue(after.get("timeline").contains("index sorted"), after.get("timeline"));
+            assertTrue(after.get("published").contains("IDX_CONTENTS_PROFILE_PUBLISHED"), after.get("published"));
+            assertTrue(after.get("types").contains("IDX_CONTENTS_PROFILE_TYPE"), after.get("types"));
+        }
+    }
+
+    private static void migrate(String url, String target) {
+        Flyway.configure()
+                .dataSource(url, "sa", "")
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .target(target)
+                .load()
+                .migrate();
+    }
+
+    // Dois perfis com volume parecido, para o perfil consultado não ser a tabela inteira
+    private static void seed(Connection connection) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("insert into profiles (id, username, active, created_at, updated_at) values " +
+                    "('" + PROFILE + "', 'plano', true, current_timestamp, current_timestamp), " +
+                    "('0190a5c4-0000-7000-8000-000000000002', 'outro', true, current_timestamp, current_timestamp)");
+        }
+        String sql = "insert into contents (id, profile_id, external_id, type, collected_at, published_at) " +
+                "values (?, ?, ?, ?, ?, ?)";
+        Instant base = Instant.parse("2024-06-01T00:00:00Z");
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 0; i < 4000; i++) {
+                ps.setObject(1, UUID.randomUUID());
+                ps.setObject(2, i % 2 == 0 ? PROFILE : UUID.fromString("0190a5c4-0000-7000-8000-000000000002"));
+                ps.setString(3, "plan-" + i);
+                ps.setString(4, i % 5 == 0 ? "REEL" : "POST");
+                ps.setTimestamp(5, Timestamp.from(base.plus(i, ChronoUnit.MINUTES)));
+                ps.setTimestamp(6, Timestamp.from(base.minus(i, ChronoUnit.HOURS)));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        try (Statement st = connection.createStatement()) {
+            st.execute("analyze");
+        }
+    }
+
+    private static Map<String, String> explainAll(Connection connection) throws SQLException {
+        Map<String, String> plans = new LinkedHashMap<>();
+        for (Map.Entry<String, String> query : QUERIES.entrySet()) {
+            try (Statement st = connection.createStatement();
+                 ResultSet rs = st.executeQuery("explain " + query.getValue())) {
+                rs.next();
+                plans.put(query.getKey(), rs.getString(1).replaceAll("\\s+", " "));
+            }
+        }
+        return plans;
+    }
+}
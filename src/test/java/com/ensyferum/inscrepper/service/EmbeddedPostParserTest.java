@@ -0,0 +1,131 @@
+package com.ensyferum.inscrepper.service;
+
+import com.ensyferum.inscrepper.model.Content;
+import com.ensyferum.inscrepper.model.ContentType;
+import com.ensyferum.inscrepper.model.Profile;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmbeddedPostParserTest {
+
+    private final EmbeddedPostParser parser = new EmbeddedPostParser();
+
+    @Test
+    public void testSharedDataTimeline() {
+        String html = """
+                <html><head><script>var x = 1;</script>
+                <script type="text/javascript">window._sharedData = {"entry_data":{"ProfilePage":[{"graphql":{"user":{
+                  "username":"perfil","edge_owner_to_timeline_media":{"count":120,"edges":[
+                    {"node":{"__typename":"GraphImage","shortcode":"AbCdE12345","display_url":"https://cdn.example/a.jpg",
+                      "taken_at_timestamp":1700000000,
+                      "edge_media_to_caption":{"edges":[{"node":{"text":"Primeira \\u00e9 legenda"}}]},
+                      "edge_liked_by":{"count":42},"edge_media_to_comment":{"count":7}}},
+                    {"node":{"__typename":"GraphSidecar","shortcode":"Sidecar001","display_url":"https://cdn.example/s.jpg",
+                      "taken_at_timestamp":1700000100,
+                      "edge_media_to_caption":{"edges":[]},
+                      "edge_sidecar_to_children":{"edges":[
+                        {"node":{"__typename":"GraphImage","shortcode":"ChildOne01","display_url":"https://cdn.example/c1.jpg"}}]},
+                      "edge_media_preview_like":{"count":5},"edge_media_to_comment":{"count":0}}}
+                  ]}}}}]}};</script>
+                </head><body></body></html>
+                """;
+
+        List<EmbeddedPostParser.EmbeddedPost> posts = parser.parse(html);
+
+        assertEquals(2, posts.size(), "filhos do carrossel não viram posts");
+        EmbeddedPostParser.EmbeddedPost first = posts.get(0);
+        assertEquals("AbCdE12345", first.shortcode());
+        assertEquals(ContentType.POST, first.type());
+        assertEquals("Primeira é legenda", first.caption());
+        assertEquals(Instant.ofEpochSecond(1700000000), first.takenAt());
+        assertEquals("https://cdn.example/a.jpg", first.displayUrl());
+        assertEquals(42L, first.likeCount());
+        assertEquals(7L, first.commentCount());
+
+        EmbeddedPostParser.EmbeddedPost sidecar = posts.get(1);
+        assertEquals("Sidecar001", sidecar.shortcode());
+        assertNull(sidecar.caption());
+        assertEquals("https://cdn.example/s.jpg", sidecar.displayUrl());
+        assertEquals(5L, sidecar.likeCount());
+    }
+
+    @Test
+    public void testApplicationJsonTimelineWithReel() {
+        String html = """
+                <script type="application/json" data-sjs>{"require":[["ScheduledServerJS","handle",null,[{"__bbox":{"result":{"data":{
+                  "xdt_api__v1__feed__user_timeline_graphql_connection":{"edges":[
+                    {"node":{"code":"ReelCode99","media_type":2,"product_type":"clips","taken_at":1710000000,
+                      "caption":{"text":"Um reel","created_at":1710000000},
+                      "image_versions2":{"candidates":[{"url":"https://cdn.example/big.jpg","width":1080},
+                                                       {"url":"https://cdn.example/small.jpg","width":320}]},
+                      "like_count":1500,"comment_count":33,"user":{"username":"perfil","code":null}}},
+                    {"node":{"code":"PlainPost1","media_type":1,"product_type":"feed","taken_at":1709000000,
+                      "caption":null,"image_versions2":{"candidates":[{"url":"https://cdn.example/p.jpg"}]}}}
+                  ]}}}}}]]]}</script>
+                """;
+
+        List<EmbeddedPostParser.EmbeddedPost> posts = parser.parse(html);
+
+        assertEquals(2, posts.size());
+        EmbeddedPostParser.EmbeddedPost reel = posts.get(0);
+        assertEquals("ReelCode99", reel.shortcode());
+        assertEquals(ContentType.REEL, reel.type());
+        assertEquals("Um reel", reel.caption());
+        assertEquals(Instant.ofEpochSecond(1710000000), reel.takenAt());
+        assertEquals("https://cdn.example/big.jpg", reel.displayUrl());
+        assertEquals(1500L, reel.likeCount());
+        assertEquals(33L, reel.commentCount());
+        assertEquals("https://www.instagram.com/reel/ReelCode99", reel.url());
+
+        EmbeddedPostParser.EmbeddedPost post = posts.get(1);
+        assertEquals(ContentType.POST, post.type());
+        assertNull(post.caption());
+        assertNull(post.likeCount());
+    }
+
+    @Test
+    public void testTruncatedPayloadKeepsPostsReadBeforeError() {
+        String html = """
+                <script type="application/json">{"edges":[
+                  {"node":{"shortcode":"Complete01","taken_at_timestamp":1700000000,"display_url":"https://cdn.example/1.jpg"}},
+                  {"node":{"shortcode":"Broken0002","display_url":</script>
+                """;
+
+        List<EmbeddedPostParser.EmbeddedPost> posts = parser.parse(html);
+
+        assertEquals(1, posts.size());
+        assertEquals("Complete01", posts.get(0).shortcode());
+    }
+
+    @Test
+    public void testPageWithoutPayloadsAndRawJson() {
+        assertTrue(parser.parse("<html><script>console.log('oi')</script></html>").isEmpty());
+        assertTrue(parser.parse(null).isEmpty());
+
+        String json = "{\"items\":[{\"code\":\"ApiCode001\",\"media_type\":1,\"taken_at\":1700000000}]}";
+        List<EmbeddedPostParser.EmbeddedPost> posts = parser.parse(json);
+        assertEquals(1, posts.size());
+        assertEquals("ApiCode001", posts.get(0).shortcode());
+    }
+
+    @Test
+    public void testApplyToFillsContent() {
+        Profile profile = Profile.builder().username("perfil").build();
+        EmbeddedPostParser.EmbeddedPost post = new EmbeddedPostParser.EmbeddedPost("ReelCode99", ContentType.REEL,
+                "Legenda", Instant.ofEpochSecond(1710000000), "https://cdn.example/big.jpg", 10L, 2L);
+
+        Content content = post.toContent(profile);
+
+        assertEquals("ReelCode99", content.getExternalId());
+        assertEquals(ContentType.REEL, content.getType());
+        assertEquals("Legenda", content.getCaption());
+        assertEquals(Instant.ofEpochSecond(1710000000), content.getPublishedAt());
+        assertEquals("https://cdn.example/big.jpg", content.getMediaUrl());
+        assertEquals(10L, content.getLikeCount());
+        assertEquals(2L, content.getCommentCount());
+    }
+}
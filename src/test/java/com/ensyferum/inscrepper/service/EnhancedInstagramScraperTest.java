@@ -0,0 +1,148 @@
+package com.ensyferum.inscrepper.service;
+
+import com.ensyferum.inscrepper.model.Content;
+import com.ensyferum.inscrepper.model.Profile;
+import com.ensyferum.inscrepper.model.ScrapeTier;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Laço de tentativas do "enhanced" com um browser de mentira (sem Chrome)
+@SpringBootTest
+@ActiveProfiles("test")
+public class EnhancedInstagramScraperTest {
+
+    @Autowired
+    private ContentDedupService contentDedupService;
+
+    @Autowired
+    private ShortcodeExtractor shortcodeExtractor;
+
+    @Autowired
+    private EmbeddedPostParser embeddedPostParser;
+
+    private final NetworkResponseCapture networkCapture = new NetworkResponseCapture(new EmbeddedPostParser());
+    private final PageReadiness pageReadiness = new PageReadiness(Duration.ofMillis(200), Duration.ofMillis(20),
+            Duration.ofMillis(1), Duration.ofMillis(5), 1);
+    private final PolitenessPolicy politeness = new PolitenessPolicy(true, Duration.ZERO, Duration.ZERO,
+            Duration.ofMillis(1), Duration.ofMillis(1));
+
+    @Test
+    public void testLoadedPageWithoutNewPostsIsSuccessWithoutRetry() {
+        FakePool pool = new FakePool(driver("https://www.instagram.com/perfil_em_dia/", "<html><body></body></html>"));
+
+        List<Content> contents = scraper(pool).scrapeProfile(profile("perfil_em_dia"));
+
+        assertEquals(List.of(), contents);
+        assertEquals(List.of("borrow", "release"), pool.calls);
+        assertEquals(0, politeness.stats().pauses());
+    }
+
+    @Test
+    public void testFailedPageIsRetriedWithBackoffOnlyBetweenAttemptsThenFails() {
+        FakePool pool = new FakePool(driver("https://www.instagram.com/perfil_sumido/",
+                "<html><body>Page not found</body></html>"));
+
+        ScraperMetrics metrics = new ScraperMetrics(new HttpFetcher(Duration.ofSeconds(5), Duration.ofSeconds(5),
+                Duration.ofSeconds(5), 2, "test-agent", "pt-BR"));
+        ProfileScraperRegistry registry = new ProfileScraperRegistry(List.of(scraper(pool)), metrics, 0.1, 0.3, 1, 0);
+
+        // Falha de verdade vira exceção e conta no ScraperMetrics, em vez de uma lista vazia "saudável"
+        assertThrows(IllegalStateException.class, () -> registry.scrape("enhanced", profile("perfil_sumido")));
+        assertEquals(1.0, metrics.stats("enhanced").failureRate());
+        assertEquals(Optional.empty(), registry.cheapest(ScrapeTier.BROWSER));
+
+        assertEquals(List.of("borrow", "invalidate", "borrow", "invalidate", "borrow", "invalidate"), pool.calls);
+        // Três tentativas, duas esperas: nada depois da última
+        assertEquals(2, politeness.stats().pauses());
+    }
+
+    private EnhancedInstagramScraper scraper(FakePool pool) {
+        return new EnhancedInstagramScraper(contentDedupService, shortcodeExtractor, pool, embeddedPostParser,
+                networkCapture, pageReadiness, politeness);
+    }
+
+    private static Profile profile(String username) {
+        return Profile.builder().username(username).active(true).build();
+    }
+
+    // Página estática: documento pronto, nenhum link de post e nenhum banner de cookies visível
+    private static WebDriver driver(String url, String html) {
+        WebElement hidden = (WebElement) Proxy.newProxyInstance(WebElement.class.getClassLoader(),
+                new Class<?>[]{WebElement.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "isDisplayed" -> false;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+        return (WebDriver) Proxy.newProxyInstance(WebDriver.class.getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getCurrentUrl":
+                            return url;
+                        case "getPageSource":
+                            return html;
+                        case "getTitle":
+                            return "Instagram";
+                        case "findElement":
+                            return hidden;
+                        case "findElements":
+                            return List.of();
+                        case "executeScript":
+                            String script = (String) args[0];
+                            if (script.contains("performance.getEntriesByType")) {
+                                return List.of("complete", 0L, 1000L, 10L);
+                            }
+                            if (script.contains("document.readyState")) {
+                                return "complete";
+                            }
+                            return script.contains("links") ? List.of() : null;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    // Pool sem Chrome: sempre o mesmo driver, registrando empréstimos e devoluções
+    private static class FakePool extends WebDriverPool {
+        private final WebDriver driver;
+        final List<String> calls = new ArrayList<>();
+
+        FakePool(WebDriver driver) {
+            super(null, null);
+            this.driver = driver;
+        }
+
+        @Override
+        public WebDriver borrow() {
+            calls.add("borrow");
+            return driver;
+        }
+
+        @Override
+        public void release(WebDriver driver) {
+            calls.add("release");
+        }
+
+        @Override
+        public void invalidate(WebDriver driver) {
+            calls.add("invalidate");
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.ensyferum.inscrepper.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpFetcherTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+
+        server.createContext("/gzip", exchange -> {
+            assertTrue(exchange.getRequestHeaders().getFirst("Accept-Encoding").contains("gzip"));
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write("<html>olá</html>".getBytes(StandardCharsets.UTF_8));
+            }
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, compressed.size());
+            try (OutputStream out = exchange.getResponseBody()) {
+                compressed.writeTo(out);
+            }
+        });
+
+        // nowrap=true simula servidores que mandam deflate cru em vez de zlib
+        for (boolean nowrap : new boolean[]{false, true}) {
+            server.createContext(nowrap ? "/deflate-raw" : "/deflate-zlib", exchange -> {
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                try (DeflaterOutputStream deflate = new DeflaterOutputStream(compressed, new Deflater(6, nowrap))) {
+                    deflate.write("café".repeat(1000).getBytes(StandardCharsets.ISO_8859_1));
+                }
+                exchange.getResponseHeaders().add("Content-Encoding", "deflate");
+                exchange.getResponseHeaders().add("Content-Type", "text/html; charset=ISO-8859-1");
+                exchange.sendResponseHeaders(200, compressed.size());
+                try (OutputStream out = exchange.getResponseBody()) {
+                    compressed.writeTo(out);
+                }
+            });
+        }
+
+        server.createContext("/moved", exchange -> {
+            exchange.getResponseHeaders().add("Location", baseUrl + "/gzip");
+            exchange.sendResponseHeaders(302, -1);
+            exchange.close();
+        });
+
+        server.createContext("/slow", exchange -> {
+            int now = concurrent.incrementAndGet();
+            maxConcurrent.accumulateAndGet(now, Math::max);
+            try {
+                Thread.sleep(150);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            concurrent.decrementAndGet();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+
+        // Cabeçalhos e começo do corpo chegam, o resto nunca
+        server.createContext("/stalled", exchange -> {
+            exchange.sendResponseHeaders(200, 1000);
+            OutputStream out = exchange.getResponseBody();
+            out.write("<html>começo".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    private HttpFetcher fetcher(int maxPerHost) {
+        return new HttpFetcher(Duration.ofSeconds(5), Duration.ofSeconds(5), Duration.ofSeconds(10),
+                maxPerHost, "test-agent", "pt-BR");
+    }
+
+    @Test
+    public void testDecompressesGzipAndFollowsRedirects() throws Exception {
+        HttpFetcher fetcher = fetcher(2);
+
+        String body = fetcher.get(baseUrl + "/moved", (status, headers, in) -> {
+            assertEquals(200, status);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        });
+
+        assertEquals("<html>olá</html>", body);
+        assertEquals(1, fetcher.stats().compressedResponses());
+        assertTrue(fetcher.stats().bytesOnWire() > 0);
+    }
+
+    @Test
+    public void testInflatesZlibAndRawDeflateIntoText() throws Exception {
+        HttpFetcher fetcher = fetcher(2);
+
+        for (String path : new String[]{"/deflate-zlib", "/deflate-raw"}) {
+            String body = fetcher.get(baseUrl + path, (status, headers, in) -> HttpFetcher.readText(in, headers));
+            assertEquals("café".repeat(1000), body, path);
+        }
+
+        HttpFetcher.HttpStats stats = fetcher.stats();
+        assertEquals(2, stats.compressedResponses());
+        assertTrue(stats.bytesDecoded() > stats.bytesOnWire(), "Corpo descomprimido deve ser maior que o trafegado");
+    }
+
+    @Test
+    public void testLimitsConcurrencyPerHost() throws Exception {
+        HttpFetcher fetcher = fetcher(2);
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<?>[] futures = new Future<?>[6];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = pool.submit(() -> {
+                    start.await();
+                    return fetcher.get(baseUrl + "/slow", (status, headers, in) -> status);
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                assertEquals(200, future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertTrue(maxConcurrent.get() <= 2, "Concorrência máxima por host excedida: " + maxConcurrent.get());
+        assertEquals(0, fetcher.stats().inFlight());
+    }
+
+    @Test
+    public void testStalledBodyHitsTotalDeadlineAndFreesHostSlot() throws Exception {
+        HttpFetcher fetcher = new HttpFetcher(Duration.ofSeconds(5), Duration.ofMillis(500), Duration.ofSeconds(1),
+                1, "test-agent", "pt-BR");
+
+        long start = System.nanoTime();
+        assertThrows(HttpTimeoutException.class, () -> fetcher.get(baseUrl + "/stalled", (status, headers, in) -> HttpFetcher.readText(in, headers)));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(elapsedMs < 3000, "Leitura do corpo não respeitou o prazo: " + elapsedMs + " ms");
+
+        // A única vaga do host voltou: a próxima requisição não espera o acquire-timeout
+        assertEquals(0, fetcher.stats().inFlight());
+        assertEquals(200, (int) fetcher.get(baseUrl + "/gzip", (status, headers, in) -> status));
+    }
+
+    @Test
+    public void testMalformedUrlIsIOException() {
+        HttpFetcher fetcher = fetcher(2);
+
+        assertThrows(IOException.class, () -> fetcher.get("https://cdn.example.com/a b|c.jpg", (s, h, in) -> s));
+        assertThrows(IOException.class, () -> fetcher.get("/p/relativo/", (s, h, in) -> s));
+        assertThrows(IOException.class, () -> fetcher.get("data:image/png;base64,AAAA", (s, h, in) -> s));
+        assertEquals(0, fetcher.stats().inFlight());
+    }
+}
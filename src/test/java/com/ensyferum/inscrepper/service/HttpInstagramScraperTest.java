@@ -0,0 +1,122 @@
+package com.ensyferum.inscrepper.service;
+
+import com.ensyferum.inscrepper.model.Content;
+import com.ensyferum.inscrepper.model.Profile;
+import com.ensyferum.inscrepper.repository.ProfileRepository;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class HttpInstagramScraperTest {
+
+    @Autowired
+    private ContentDedupService contentDedupService;
+
+    @Autowired
+    private ShortcodeExtractor shortcodeExtractor;
+
+    @Autowired
+    private EmbeddedPostParser embeddedPostParser;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    private HttpServer server;
+    private String pageUrl;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        // Página que nunca muda, com 10 posts no grid
+        StringBuilder html = new StringBuilder("<html><body>");
+        for (int i = 0; i < 10; i++) {
+            html.append("<a href=\"/p/GridPost").append(i).append("/\">post</a>");
+        }
+        byte[] body = html.append("</body></html>").toString().getBytes(StandardCharsets.UTF_8);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/perfil", exchange -> {
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        pageUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/perfil";
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testPostsBeyondPerRunLimitAreCollectedNextRun() {
+        Profile profile = profileRepository.save(Profile.builder()
+                .username("http_backlog_test")
+                .active(true)
+                .build());
+        HttpInstagramScraper scraper = new HttpInstagramScraper(contentDedupService, null, localPageFetcher(),
+                shortcodeExtractor, embeddedPostParser);
+
+        HttpInstagramScraper.Result first = scraper.scrapeAndSave(profile);
+        assertEquals(HttpInstagramScraper.Outcome.OK, first.outcome());
+        assertEquals(6, first.contents().size());
+
+        // Mesma página: os 4 posts que passaram do limite não podem virar "sem mudanças"
+        HttpInstagramScraper.Result second = scraper.scrapeAndSave(profile);
+        assertEquals(HttpInstagramScraper.Outcome.OK, second.outcome());
+        assertEquals(4, second.contents().size());
+
+        Set<String> collected = new HashSet<>();
+        for (Content content : first.contents()) {
+            collected.add(content.getExternalId());
+        }
+        for (Content content : second.contents()) {
+            assertTrue(collected.add(content.getExternalId()));
+        }
+        assertEquals(10, collected.size());
+
+        // Tudo lido: agora sim a página fica marcada como vista
+        HttpInstagramScraper.Result third = scraper.scrapeAndSave(profile);
+        assertEquals(HttpInstagramScraper.Outcome.UNCHANGED, third.outcome());
+        assertEquals(List.of(), third.contents());
+    }
+
+    // Cache de validadores real, mas toda URL de perfil aponta para o servidor local
+    private ConditionalPageFetcher localPageFetcher() {
+        HttpFetcher http = new HttpFetcher(Duration.ofSeconds(5), Duration.ofSeconds(5), Duration.ofSeconds(5),
+                2, "test-agent", "pt-BR");
+        return new ConditionalPageFetcher(http, 10, Duration.ofHours(1), Clock.systemUTC()) {
+            @Override
+            public PageResult fetch(String url, Map<String, String> headers) {
+                return super.fetch(pageUrl, headers);
+            }
+
+            @Override
+            public void invalidate(String url) {
+                super.invalidate(pageUrl);
+            }
+        };
+    }
+}
@@ -0,0 +1,56 @@
+package com.ensyferum.inscrepper.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MediaStoreTest {
+
+    @TempDir
+    Path mediaRoot;
+
+    @Test
+    public void testStoreIsContentAddressedAndSharded() throws Exception {
+        MediaStore store = new MediaStore(mediaRoot.toString());
+        byte[] data = "imagem-de-teste".getBytes(StandardCharsets.UTF_8);
+
+        MediaStore.StoredMedia media = store.store(data, "image/jpeg");
+
+        assertEquals(64, media.hash().length());
+        assertEquals(data.length, media.size());
+        assertEquals("image/jpeg", media.mimeType());
+
+        Path file = store.resolve(media.hash());
+        assertEquals(mediaRoot.resolve(media.hash().substring(0, 2))
+                .resolve(media.hash().substring(2, 4))
+                .resolve(media.hash()), file);
+        assertArrayEquals(data, Files.readAllBytes(file));
+    }
+
+    @Test
+    public void testIdenticalImagesAreStoredOnce() throws Exception {
+        MediaStore store = new MediaStore(mediaRoot.toString());
+        byte[] data = new byte[4096];
+        data[10] = 42;
+
+        MediaStore.StoredMedia first = store.store(data, "image/jpeg");
+        MediaStore.StoredMedia second = store.store(data, "image/png");
+
+        assertEquals(first.hash(), second.hash());
+        try (Stream<Path> files = Files.walk(mediaRoot)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count(), "Deve existir um único arquivo");
+        }
+    }
+
+    @Test
+    public void testResolveRejectsInvalidHash() {
+        MediaStore store = new MediaStore(mediaRoot.toString());
+        assertThrows(IllegalArgumentException.class, () -> store.resolve("../../etc/passwd"));
+    }
+}
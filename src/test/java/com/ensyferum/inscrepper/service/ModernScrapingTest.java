@@ -49,8 +49,8 @@ public class ModernScrapingTest {
             System.out.println("  - Tipo: " + content.getType());
             System.out.println("  - Coletado em: " + content.getCollectedAt());
             System.out.println("  - Imagem URL: " + (content.getMediaUrl() != null ? content.getMediaUrl() : "N/A"));
-            System.out.println("  - Tem blob: " + (content.getImageBlob() != null ? 
-                content.getImageBlob().length + " bytes" : "Não"));
+            System.out.println("  - Tem blob: " + (content.getImageHash() != null ? 
+                content.getImageSize() + " bytes" : "Não"));
         }
         
         if (contents.isEmpty()) {
@@ -0,0 +1,57 @@
+package com.ensyferum.inscrepper.service;
+
+import com.ensyferum.inscrepper.model.Profile;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.WebDriver;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NetworkCaptureScraperTest {
+
+    @Test
+    public void testSessionWithoutDevToolsIsReturnedToPool() {
+        NetworkResponseCapture networkCapture = new NetworkResponseCapture(new EmbeddedPostParser());
+        RecordingPool pool = new RecordingPool(networkCapture);
+        NetworkCaptureScraper scraper = new NetworkCaptureScraper(pool, networkCapture, null);
+
+        // Driver sem install() (como um browser sem DevTools): falha, mas o Chrome continua no pool
+        assertThrows(IllegalStateException.class,
+                () -> scraper.scrapeProfile(Profile.builder().username("perfil").build()));
+
+        assertEquals(List.of("release"), pool.calls);
+    }
+
+    // Pool sem Chrome: entrega um driver de mentira e registra o destino dele
+    private static class RecordingPool extends WebDriverPool {
+        private final WebDriver driver = (WebDriver) Proxy.newProxyInstance(WebDriver.class.getClassLoader(),
+                new Class<?>[]{WebDriver.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+        final List<String> calls = new ArrayList<>();
+
+        RecordingPool(NetworkResponseCapture networkCapture) {
+            super(null, networkCapture);
+        }
+
+        @Override
+        public WebDriver borrow() {
+            return driver;
+        }
+
+        @Override
+        public void release(WebDriver driver) {
+            calls.add("release");
+        }
+
+        @Override
+        public void invalidate(WebDriver driver) {
+            calls.add("invalidate");
+        }
+    }
+}
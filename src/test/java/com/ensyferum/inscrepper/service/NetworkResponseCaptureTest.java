@@ -0,0 +1,76 @@
+package com.ensyferum.inscrepper.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NetworkResponseCaptureTest {
+
+    private final NetworkResponseCapture capture = new NetworkResponseCapture(new EmbeddedPostParser());
+
+    @Test
+    public void testOnlyDocumentsAndJsonCallsAreRead() {
+        assertTrue(NetworkResponseCapture.wanted("Document", "https://www.instagram.com/perfil/", "text/html"));
+        assertTrue(NetworkResponseCapture.wanted("XHR", "https://www.instagram.com/graphql/query", "text/plain"));
+        assertTrue(NetworkResponseCapture.wanted("Fetch", "https://i.instagram.com/api/v1/feed/user/1/", null));
+        assertTrue(NetworkResponseCapture.wanted("Fetch", "https://www.instagram.com/ajax/bz", "application/json"));
+
+        assertFalse(NetworkResponseCapture.wanted("Image", "https://cdn.example/a.jpg", "image/jpeg"));
+        assertFalse(NetworkResponseCapture.wanted("Script", "https://static.example/app.js", "application/javascript"));
+        assertFalse(NetworkResponseCapture.wanted("XHR", "https://www.instagram.com/logging", "text/plain"));
+    }
+
+    @Test
+    public void testCaptureWithoutDevToolsIsNotListening() {
+        // Driver sem sessão instalada (ex.: Firefox ou install() falhou): o chamador cai para o DOM
+        try (NetworkResponseCapture.Capture c = capture.begin(null)) {
+            assertFalse(c.listening());
+            assertEquals(0, c.awaitPosts(1, Duration.ofSeconds(30)));
+            assertTrue(c.byShortcode().isEmpty());
+        }
+
+        NetworkResponseCapture.CaptureStats stats = capture.stats();
+        assertEquals(0, stats.sessions());
+        assertEquals(0, stats.activeCaptures());
+    }
+
+    @Test
+    public void testBodyIsReadWhicheverEventArrivesFirst() {
+        NetworkResponseCapture.Requests requests = new NetworkResponseCapture.Requests();
+
+        // Ordem normal: o corpo é lido no loadingFinished
+        assertFalse(requests.received("1", "https://www.instagram.com/graphql/query", true));
+        assertEquals("https://www.instagram.com/graphql/query", requests.finished("1"));
+
+        // loadingFinished entregue antes: o corpo é lido no responseReceived
+        assertNull(requests.finished("2"));
+        assertTrue(requests.received("2", "https://www.instagram.com/perfil/", true));
+
+        // Resposta que não interessa, em qualquer ordem, não deixa nada para trás
+        assertNull(requests.finished("3"));
+        assertFalse(requests.received("3", "https://cdn.example/a.jpg", false));
+        assertFalse(requests.received("4", "https://cdn.example/b.jpg", false));
+        assertNull(requests.finished("4"));
+        requests.failed("4");
+
+        assertEquals(0, requests.size());
+    }
+
+    @Test
+    public void testUnmatchedRequestsDoNotAccumulate() {
+        NetworkResponseCapture.Requests requests = new NetworkResponseCapture.Requests();
+        for (int i = 0; i < NetworkResponseCapture.Requests.MAX_EARLY_FINISHED * 3; i++) {
+            requests.finished("img-" + i);
+        }
+        assertEquals(NetworkResponseCapture.Requests.MAX_EARLY_FINISHED, requests.size());
+
+        // Resposta cujo loadingFinished nunca veio (navegação seguinte, captura fechada)
+        requests.received("xhr", "https://www.instagram.com/graphql/query", true);
+        requests.clear();
+
+        assertEquals(0, requests.size());
+        assertNull(requests.finished("xhr"));
+    }
+}
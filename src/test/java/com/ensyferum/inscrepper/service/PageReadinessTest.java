@@ -0,0 +1,77 @@
+package com.ensyferum.inscrepper.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PageReadinessTest {
+
+    private final PageReadiness readiness = new PageReadiness(Duration.ofSeconds(5), Duration.ofSeconds(5),
+            Duration.ofMillis(1), Duration.ofMillis(20), 3);
+
+    @Test
+    public void testSettlesOnceGridStopsChanging() {
+        PageReadiness.Snapshot loading = new PageReadiness.Snapshot(false, 0, 800, 10);
+        PageReadiness.Snapshot partial = new PageReadiness.Snapshot(true, 6, 1600, 30);
+        PageReadiness.Snapshot full = new PageReadiness.Snapshot(true, 12, 2400, 42);
+
+        long start = System.nanoTime();
+        PageReadiness.Snapshot result = readiness.await(sequence(loading, partial, full), s -> true,
+                Duration.ofSeconds(5));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(full, result);
+        // Termina no período de silêncio, muito antes do teto
+        assertTrue(elapsedMs < 2000, "esperou " + elapsedMs + " ms");
+        assertEquals(0, readiness.stats().timeouts());
+    }
+
+    @Test
+    public void testGrowthWaitGivesUpAtUpperBound() {
+        PageReadiness.Snapshot before = new PageReadiness.Snapshot(true, 12, 2400, 42);
+
+        PageReadiness.Snapshot result = readiness.await(() -> before, s -> s.grewFrom(before),
+                Duration.ofMillis(50));
+
+        assertFalse(result.grewFrom(before));
+        assertEquals(1, readiness.stats().timeouts());
+    }
+
+    @Test
+    public void testGrowthIsDetectedByAnchorsOrHeight() {
+        PageReadiness.Snapshot before = new PageReadiness.Snapshot(true, 12, 2400, 42);
+
+        assertTrue(new PageReadiness.Snapshot(true, 13, 2400, 42).grewFrom(before));
+        assertTrue(new PageReadiness.Snapshot(true, 12, 3000, 42).grewFrom(before));
+        assertFalse(new PageReadiness.Snapshot(true, 12, 2400, 50).grewFrom(before));
+
+        PageReadiness.Snapshot grown = readiness.await(sequence(before, before,
+                new PageReadiness.Snapshot(true, 24, 3600, 60)), s -> s.grewFrom(before), Duration.ofSeconds(5));
+        assertEquals(24, grown.anchors());
+    }
+
+    @Test
+    public void testDriverWithoutJavascriptDoesNotWait() {
+        PageReadiness.Snapshot snapshot = readiness.awaitSettled(null);
+
+        assertTrue(snapshot.complete());
+        assertEquals(0, snapshot.anchors());
+    }
+
+    // Devolve os estados em ordem e repete o último
+    private static Supplier<PageReadiness.Snapshot> sequence(PageReadiness.Snapshot... states) {
+        Iterator<PageReadiness.Snapshot> it = List.of(states).iterator();
+        PageReadiness.Snapshot[] last = {states[0]};
+        return () -> {
+            if (it.hasNext()) {
+                last[0] = it.next();
+            }
+            return last[0];
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package com.ensyferum.inscrepper.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PolitenessPolicyTest {
+
+    @Test
+    public void testJitterStaysWithinBounds() {
+        PolitenessPolicy policy = new PolitenessPolicy(true, Duration.ofMillis(500), Duration.ofMillis(1500),
+                Duration.ofSeconds(3), Duration.ofSeconds(8));
+
+        for (int i = 0; i < 200; i++) {
+            long delay = policy.nextDelayMs(Duration.ofMillis(500), Duration.ofMillis(1500));
+            assertTrue(delay >= 500 && delay <= 1500, "delay fora do intervalo: " + delay);
+        }
+        // Máximo menor que o mínimo vira atraso fixo
+        assertEquals(700, policy.nextDelayMs(Duration.ofMillis(700), Duration.ofMillis(100)));
+    }
+
+    @Test
+    public void testDisabledPolicyNeverSleeps() {
+        PolitenessPolicy policy = new PolitenessPolicy(false, Duration.ofSeconds(5), Duration.ofSeconds(10),
+                Duration.ofSeconds(30), Duration.ofSeconds(60));
+
+        long start = System.nanoTime();
+        policy.pause();
+        policy.beforeRetry();
+
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 1000);
+        assertEquals(0, policy.stats().pauses());
+        assertFalse(policy.stats().enabled());
+    }
+}
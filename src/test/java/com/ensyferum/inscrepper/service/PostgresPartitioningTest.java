@@ -0,0 +1,192 @@
+package com.ensyferum.inscrepper.service;
+
+import com.ensyferum.inscrepper.model.Content;
+import com.ensyferum.inscrepper.model.ContentType;
+import com.ensyferum.inscrepper.model.Profile;
+import com.ensyferum.inscrepper.repository.ContentRepository;
+import com.ensyferum.inscrepper.repository.DailyCount;
+import com.ensyferum.inscrepper.repository.ProfileRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Migrations e caminhos exclusivos do PostgreSQL (V5 particionada, content_keys, gravação em lote)
+// contra um PostgreSQL de verdade, embutido. Opcional por baixar/rodar binários: mvn test -Dpostgres.it=true
+// (o initdb não roda como root)
+@SpringBootTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect")
+@ActiveProfiles({"test", "postgres"})
+@EnabledIfSystemProperty(named = "postgres.it", matches = "true")
+@Transactional
+public class PostgresPartitioningTest {
+
+    private static EmbeddedPostgres postgres;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ContentBulkWriter bulkWriter;
+
+    @Autowired
+    private ContentPartitionMaintainer partitionMaintainer;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private ContentRepository contentRepository;
+
+    @Test
+    public void testMigrationsPartitionContentsByMonth() {
+        assertEquals("5", flyway.info().current().getVersion().getVersion());
+        assertEquals(ContentBulkWriter.Dialect.POSTGRES, bulkWriter.dialect());
+        assertTrue(partitionMaintainer.isPartitioned());
+
+        assertEquals("r", jdbcTemplate.queryForObject(
+                "select partstrat from pg_partitioned_table where partrelid = 'contents'::regclass", String.class));
+        String currentMonth = jdbcTemplate.queryForObject(
+                "select 'contents_' || to_char(now() at time zone 'UTC', 'YYYY_MM')", String.class);
+        assertNotNull(jdbcTemplate.queryForObject("select to_regclass(?)::text", String.class, currentMonth));
+
+        // Migration + startup já criaram o mês atual e os seguintes
+        assertEquals(0, partitionMaintainer.ensurePartitions());
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "select ensure_contents_partitions('2090-01-15', '2090-02-15')", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select ensure_contents_partitions('2090-01-15', '2090-02-15')", Integer.class));
+    }
+
+    @Test
+    public void testRowsInDefaultPartitionMoveWhenMonthIsCreated() {
+        Profile profile = profile("pg_default_partition");
+        Content future = content(profile, "pg-future-" + System.nanoTime());
+        future.setCollectedAt(Instant.parse("2091-03-10T08:00:00Z"));
+        assertEquals(1, bulkWriter.insertIgnoringExisting(List.of(future)).size());
+        assertEquals("contents_default", partitionOf(future.getExternalId()));
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select ensure_contents_partitions('2091-03-01', '2091-03-01')", Integer.class));
+
+        assertEquals("contents_2091_03", partitionOf(future.getExternalId()));
+        // O DELETE na default não pode levar a chave embora
+        assertEquals(future.getId(), jdbcTemplate.queryForObject(
+                "select content_id from content_keys where external_id = ?", UUID.class, future.getExternalId()));
+    }
+
+    @Test
+    public void testBulkWriteSkipsDuplicateExternalId() {
+        Profile profile = profile("pg_bulk_duplicates");
+        String suffix = "-" + System.nanoTime();
+        Content first = content(profile, "pg-a" + suffix);
+        first.setCaption(null);
+        List<Content> saved = bulkWriter.insertIgnoringExisting(List.of(first, content(profile, "pg-b" + suffix)));
+        assertEquals(2, saved.size());
+
+        // Mesmo externalId com outro objeto (outro scrape) e repetido dentro do lote
+        Content again = content(profile, "pg-a" + suffix);
+        Content fresh = content(profile, "pg-c" + suffix);
+        List<Content> second = bulkWriter.insertIgnoringExisting(
+                List.of(again, fresh, content(profile, "pg-c" + suffix)));
+
+        assertEquals(List.of(fresh), second);
+        assertNull(again.getId());
+        assertEquals(1, count("select count(*) from contents where external_id = ?", "pg-a" + suffix));
+        assertEquals(first.getId(), jdbcTemplate.queryForObject(
+                "select id from contents where external_id = ?", UUID.class, "pg-a" + suffix));
+        assertEquals(3, count("select count(*) from content_keys where external_id like ?", "pg-%" + suffix));
+    }
+
+    @Test
+    public void testPlainInsertOfDuplicateExternalIdIsUniqueViolation() {
+        Profile profile = profile("pg_plain_duplicate");
+        String externalId = "pg-dup-" + System.nanoTime();
+        bulkWriter.insertIgnoringExisting(List.of(content(profile, externalId)));
+
+        // Caminho do JPA (sem reserva prévia): o trigger mantém a unicidade que era do uk_contents_external_id
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "insert into contents (id, profile_id, external_id, type, collected_at) values (?, ?, ?, 'POST', now())",
+                UUID.randomUUID(), profile.getId(), externalId));
+    }
+
+    @Test
+    public void testDailyCountsUseUtcDayWhateverTheSessionZone() {
+        Profile profile = profile("pg_daily_utc");
+        Content late = content(profile, "pg-late-" + System.nanoTime());
+        late.setCollectedAt(Instant.parse("2024-03-01T23:59:00Z"));
+        Content early = content(profile, "pg-early-" + System.nanoTime());
+        early.setCollectedAt(Instant.parse("2024-03-02T00:01:00Z"));
+        bulkWriter.insertIgnoringExisting(List.of(late, early));
+
+        jdbcTemplate.execute("set time zone 'America/Sao_Paulo'");
+        try {
+            List<DailyCount> days = contentRepository.countCollectedPerDay(profile, Instant.parse("2024-03-01T00:00:00Z"));
+
+            assertEquals(List.of(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 2)),
+                    days.stream().map(DailyCount::getDay).toList());
+            assertEquals(List.of(1L, 1L), days.stream().map(DailyCount::getTotal).toList());
+        } finally {
+            jdbcTemplate.execute("set time zone local");
+        }
+    }
+
+    private String partitionOf(String externalId) {
+        return jdbcTemplate.queryForObject("select tableoid::regclass::text from contents where external_id = ?",
+                String.class, externalId);
+    }
+
+    private int count(String sql, String arg) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, arg);
+    }
+
+    private Profile profile(String username) {
+        return profileRepository.save(Profile.builder().username(username).active(true).build());
+    }
+
+    private static Content content(Profile profile, String externalId) {
+        return Content.builder()
+                .profile(profile)
+                .externalId(externalId)
+                .url("https://www.instagram.com/p/" + externalId + "/")
+                .caption("legenda")
+                .type(ContentType.POST)
+                .collectedAt(Instant.now().truncatedTo(ChronoUnit.MICROS))
+                .build();
+    }
+}
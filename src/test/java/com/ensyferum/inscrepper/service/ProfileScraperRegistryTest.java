@@ -0,0 +1,156 @@
+package com.ensyferum.inscrepper.service;
+
+import com.ensyferum.inscrepper.model.Content;
+import com.ensyferum.inscrepper.model.Profile;
+import com.ensyferum.inscrepper.model.ScrapeTier;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProfileScraperRegistryTest {
+
+    private final ScraperMetrics metrics = new ScraperMetrics(new HttpFetcher(Duration.ofSeconds(5),
+            Duration.ofSeconds(5), Duration.ofSeconds(5), 2, "test-agent", "pt-BR"));
+
+    private final Profile profile = Profile.builder().username("perfil").build();
+
+    @Test
+    public void testLookupAndUnknownType() {
+        ProfileScraperRegistry registry = registry(new FakeScraper("http", ScrapeTier.HTTP, 0, 1));
+
+        assertTrue(registry.supports("http"));
+        assertFalse(registry.supports("nope"));
+        assertEquals(List.of("http"), registry.types());
+        assertThrows(IllegalArgumentException.class, () -> registry.scrape("nope", profile));
+        assertThrows(IllegalStateException.class, () -> registry(
+                new FakeScraper("http", ScrapeTier.HTTP, 0, 1), new FakeScraper("http", ScrapeTier.HTTP, 0, 1)));
+    }
+
+    @Test
+    public void testMetricsRecordRunsPostsAndFailures() {
+        FakeScraper scraper = new FakeScraper("enhanced", ScrapeTier.BROWSER, 5, 2);
+        ProfileScraperRegistry registry = registry(scraper);
+
+        registry.scrape("enhanced", profile);
+        registry.scrape("enhanced", profile);
+        scraper.fail = true;
+        assertThrows(IllegalStateException.class, () -> registry.scrape("enhanced", profile));
+
+        ScraperMetrics.StrategyStats stats = metrics.stats("enhanced");
+        assertEquals(3, stats.runs());
+        assertEquals(1, stats.failures());
+        assertEquals(4, stats.newPosts());
+        assertEquals(1.0 / 3, stats.failureRate(), 1e-9);
+        assertTrue(stats.maxLatencyMs() >= 5);
+        assertNotNull(stats.lastRunAt());
+
+        // Estratégia nunca executada aparece zerada
+        assertEquals(0, metrics.stats("modern").runs());
+    }
+
+    @Test
+    public void testCheapestPicksFastestStrategyMeetingTarget() {
+        FakeScraper slow = new FakeScraper("enhanced", ScrapeTier.BROWSER, 30, 3);
+        FakeScraper fast = new FakeScraper("modern", ScrapeTier.BROWSER, 1, 3);
+        FakeScraper fastButEmpty = new FakeScraper("basic", ScrapeTier.BROWSER, 0, 0);
+        ProfileScraperRegistry registry = registry(slow, fast, fastButEmpty);
+
+        // Sem execuções suficientes não há como comparar
+        assertEquals(Optional.empty(), registry.cheapest(ScrapeTier.BROWSER));
+
+        for (int i = 0; i < 2; i++) {
+            registry.scrape("enhanced", profile);
+            registry.scrape("modern", profile);
+            registry.scrape("basic", profile);
+        }
+
+        assertEquals("modern", registry.cheapest(ScrapeTier.BROWSER).map(ProfileScraper::type).orElse(null));
+        assertEquals(Optional.empty(), registry.cheapest(ScrapeTier.HTTP));
+    }
+
+    @Test
+    public void testRouteExploresUnderSampledStrategies() {
+        FakeScraper enhanced = new FakeScraper("enhanced", ScrapeTier.BROWSER, 0, 1);
+        FakeScraper modern = new FakeScraper("modern", ScrapeTier.BROWSER, 0, 1);
+        FakeScraper basic = new FakeScraper("basic", ScrapeTier.BROWSER, 0, 1);
+        FakeScraper http = new FakeScraper("http", ScrapeTier.HTTP, 0, 1);
+        ProfileScraperRegistry registry = new ProfileScraperRegistry(List.of(enhanced, modern, basic, http),
+                metrics, 0.5, 0.3, 2, 3);
+
+        // Sem números, duas em cada três vão para o padrão e a terceira para a menos executada
+        List<String> routes = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            String type = registry.route(ScrapeTier.BROWSER, "enhanced");
+            routes.add(type);
+            registry.scrape(type, profile);
+        }
+        assertEquals(List.of("enhanced", "enhanced", "modern", "enhanced", "enhanced", "basic"), routes);
+
+        // A camada HTTP nunca entra na exploração do browser
+        assertEquals(0, metrics.stats("http").runs());
+        assertEquals(1, metrics.stats("modern").runs());
+        assertEquals(1, metrics.stats("basic").runs());
+    }
+
+    @Test
+    public void testRouteWithoutExplorationAlwaysPicksBest() {
+        ProfileScraperRegistry registry = new ProfileScraperRegistry(List.of(
+                new FakeScraper("enhanced", ScrapeTier.BROWSER, 0, 1),
+                new FakeScraper("modern", ScrapeTier.BROWSER, 0, 1)), metrics, 0.5, 0.3, 2, 0);
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals("enhanced", registry.route(ScrapeTier.BROWSER, "enhanced"));
+        }
+    }
+
+    private ProfileScraperRegistry registry(ProfileScraper... scrapers) {
+        return new ProfileScraperRegistry(List.of(scrapers), metrics, 0.5, 0.3, 2, 0);
+    }
+
+    private static class FakeScraper implements ProfileScraper {
+        private final String type;
+        private final ScrapeTier tier;
+        private final long sleepMs;
+        private final int posts;
+        boolean fail;
+
+        FakeScraper(String type, ScrapeTier tier, long sleepMs, int posts) {
+            this.type = type;
+            this.tier = tier;
+            this.sleepMs = sleepMs;
+            this.posts = posts;
+        }
+
+        @Override
+        public String type() {
+            return type;
+        }
+
+        @Override
+        public ScrapeTier tier() {
+            return tier;
+        }
+
+        @Override
+        public List<Content> scrapeAndSaveProfile(Profile profile) {
+            if (fail) {
+                throw new IllegalStateException("bloqueado");
+            }
+            try {
+                Thread.sleep(sleepMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            List<Content> contents = new ArrayList<>();
+            for (int i = 0; i < posts; i++) {
+                contents.add(Content.builder().externalId(type + i).build());
+            }
+            return contents;
+        }
+    }
+}
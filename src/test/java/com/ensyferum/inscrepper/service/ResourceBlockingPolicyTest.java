@@ -0,0 +1,45 @@
+package com.ensyferum.inscrepper.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResourceBlockingPolicyTest {
+
+    @Test
+    public void testResourceTypesAreNormalizedForCdp() {
+        ResourceBlockingPolicy policy = new ResourceBlockingPolicy(true,
+                List.of("media", " FONT ", "xhr", "Media", ""), List.of());
+
+        assertEquals(List.of("Media", "Font", "XHR"), policy.blockedTypes());
+    }
+
+    @Test
+    public void testFetchPatternsPauseOnlyBlockedTypes() {
+        ResourceBlockingPolicy policy = new ResourceBlockingPolicy(true, List.of("Image", "Media"), List.of());
+
+        List<Map<String, Object>> patterns = policy.fetchPatterns();
+
+        assertEquals(2, patterns.size());
+        assertEquals(Map.of("urlPattern", "*", "resourceType", "Image", "requestStage", "Request"), patterns.get(0));
+        assertEquals("Media", patterns.get(1).get("resourceType"));
+    }
+
+    @Test
+    public void testStatsBeforeAnySession() {
+        ResourceBlockingPolicy policy = new ResourceBlockingPolicy(false, List.of("Font"),
+                List.of("*doubleclick.net*", " ", "*.mp4*"));
+
+        // Desligado: nada é aplicado, nem em drivers sem DevTools
+        policy.apply(null);
+
+        ResourceBlockingPolicy.BlockingStats stats = policy.stats();
+        assertFalse(stats.enabled());
+        assertEquals(2, stats.urlPatterns());
+        assertEquals(0, stats.sessions());
+        assertEquals(0, stats.blocked());
+    }
+}
@@ -48,8 +48,8 @@ public class ScrapingDebugTest {
             System.out.println("  - Imagem URL: " + content.getMediaUrl());
             System.out.println("  - Caption: " + (content.getCaption() != null && content.getCaption().length() > 50 ? 
                 content.getCaption().substring(0, 50) + "..." : content.getCaption()));
-            System.out.println("  - Tem blob de imagem: " + (content.getImageBlob() != null ? 
-                content.getImageBlob().length + " bytes" : "Não"));
+            System.out.println("  - Tem blob de imagem: " + (content.getImageHash() != null ? 
+                content.getImageSize() + " bytes" : "Não"));
             System.out.println();
         }
         
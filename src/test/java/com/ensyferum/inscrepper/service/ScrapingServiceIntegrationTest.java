@@ -14,6 +14,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.abort;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -43,7 +44,14 @@ public class ScrapingServiceIntegrationTest {
                 });
 
         // Executar o scraping
-        List<Content> scrapedContents = scrapingService.scrapeAndSaveProfile(profile);
+        List<Content> scrapedContents;
+        try {
+            scrapedContents = scrapingService.scrapeAndSaveProfile(profile);
+        } catch (IllegalStateException e) {
+            // Sem Chrome, sem rede ou com bloqueio a coleta falha de verdade (não volta mais vazia)
+            abort("Coleta indisponível neste ambiente: " + e.getMessage());
+            return;
+        }
 
         // Verificações
         assertNotNull(scrapedContents);
@@ -61,11 +69,11 @@ public class ScrapingServiceIntegrationTest {
             assertNotNull(firstContent.getUrl());
             assertNotNull(firstContent.getCollectedAt());
             
-            // Verificar se a imagem foi baixada e salva como blob
-            if (firstContent.getImageBlob() != null) {
-                assertTrue(firstContent.getImageBlob().length > 0, "Imagem deve ter sido baixada como blob");
+            // Verificar se a imagem foi baixada e salva no MediaStore
+            if (firstContent.getImageHash() != null) {
+                assertTrue(firstContent.getImageSize() > 0, "Imagem deve ter sido baixada para o MediaStore");
                 assertNotNull(firstContent.getImageMimeType(), "Tipo MIME da imagem deve estar definido");
-                System.out.println("Imagem baixada com sucesso: " + firstContent.getImageBlob().length + " bytes");
+                System.out.println("Imagem baixada com sucesso: " + firstContent.getImageSize() + " bytes");
                 System.out.println("Tipo MIME: " + firstContent.getImageMimeType());
             }
             
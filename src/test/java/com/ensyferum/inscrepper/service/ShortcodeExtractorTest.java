@@ -0,0 +1,54 @@
+package com.ensyferum.inscrepper.service;
+
+import com.ensyferum.inscrepper.model.ContentType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShortcodeExtractorTest {
+
+    private final ShortcodeExtractor extractor = new ShortcodeExtractor();
+
+    @Test
+    public void testExtractsLinksJsonAndEscapedPathsInPageOrder() {
+        String page = """
+                <a href="/p/CxYz123AbC/">post</a>
+                <a href="https://www.instagram.com/reel/Rl_9-abcDE/?utm=1">reel</a>
+                <script>{"shortcode":"Json12345ab","url":"\\/p\\/Esc_aped01\\/"}</script>
+                <a href="/p/CxYz123AbC/">repetido</a>
+                """;
+
+        List<ShortcodeExtractor.PostRef> refs = extractor.extract(page);
+
+        assertEquals(List.of(
+                new ShortcodeExtractor.PostRef("CxYz123AbC", ContentType.POST),
+                new ShortcodeExtractor.PostRef("Rl_9-abcDE", ContentType.REEL),
+                new ShortcodeExtractor.PostRef("Json12345ab", ContentType.POST),
+                new ShortcodeExtractor.PostRef("Esc_aped01", ContentType.POST)), refs);
+        assertEquals("https://www.instagram.com/reel/Rl_9-abcDE", refs.get(1).url());
+    }
+
+    @Test
+    public void testIgnoresNonPostPaths() {
+        String page = "<a href=\"/reels/audio/123456/\"></a> <a href=\"/explore/\"></a> "
+                + "<img src=\"/static/p/x.png\"> \"shortcode\": 42 /p/abc/";
+
+        assertTrue(extractor.extract(page).isEmpty());
+    }
+
+    @Test
+    public void testRespectsLimit() {
+        String page = "/p/AAAAAAA1/ /p/AAAAAAA2/ /p/AAAAAAA3/";
+
+        assertEquals(2, extractor.extract(page, 2).size());
+    }
+
+    @Test
+    public void testShortcodeOfUrl() {
+        assertEquals("CxYz123AbC", extractor.shortcodeOf("https://www.instagram.com/p/CxYz123AbC"));
+        assertEquals(ContentType.REEL, extractor.typeOf("https://www.instagram.com/reel/Rl_9-abcDE/"));
+        assertNull(extractor.shortcodeOf("https://www.instagram.com/oncallpeds/"));
+    }
+}
@@ -0,0 +1,160 @@
+package com.ensyferum.inscrepper.service;
+
+import com.ensyferum.inscrepper.model.Content;
+import com.ensyferum.inscrepper.model.Profile;
+import com.ensyferum.inscrepper.model.ScrapeTier;
+import com.ensyferum.inscrepper.repository.ProfileRepository;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TieredScrapingStrategyTest {
+
+    private static final Duration RETRY = Duration.ofHours(24);
+    private static final Instant NOW = Instant.parse("2024-05-01T12:00:00Z");
+
+    @Test
+    public void testStartTierPrefersRememberedBrowserUntilRetry() {
+        Profile fresh = Profile.builder().username("novo").build();
+        assertEquals(ScrapeTier.HTTP, TieredScrapingStrategy.startTier(fresh, RETRY, NOW));
+
+        Profile http = Profile.builder().username("http").preferredTier(ScrapeTier.HTTP)
+                .preferredTierSince(NOW.minusSeconds(60)).build();
+        assertEquals(ScrapeTier.HTTP, TieredScrapingStrategy.startTier(http, RETRY, NOW));
+
+        Profile browser = Profile.builder().username("browser").preferredTier(ScrapeTier.BROWSER)
+                .preferredTierSince(NOW.minus(Duration.ofHours(2))).build();
+        assertEquals(ScrapeTier.BROWSER, TieredScrapingStrategy.startTier(browser, RETRY, NOW));
+
+        // Passado o prazo, o HTTP é testado de novo
+        browser.setPreferredTierSince(NOW.minus(RETRY));
+        assertEquals(ScrapeTier.HTTP, TieredScrapingStrategy.startTier(browser, RETRY, NOW));
+    }
+
+    @Test
+    public void testEscalationReason() {
+        assertNull(TieredScrapingStrategy.escalationReason(result(HttpInstagramScraper.Outcome.UNCHANGED, 304, 0), 1));
+        assertNull(TieredScrapingStrategy.escalationReason(result(HttpInstagramScraper.Outcome.OK, 200, 12), 1));
+
+        assertNotNull(TieredScrapingStrategy.escalationReason(result(HttpInstagramScraper.Outcome.OK, 200, 0), 1));
+        assertNotNull(TieredScrapingStrategy.escalationReason(result(HttpInstagramScraper.Outcome.BLOCKED, 429, 0), 1));
+        assertNotNull(TieredScrapingStrategy.escalationReason(result(HttpInstagramScraper.Outcome.FAILED, -1, 0), 1));
+    }
+
+    @Test
+    public void testBlockPageDetection() {
+        assertTrue(HttpInstagramScraper.looksBlocked(429, null));
+        assertTrue(HttpInstagramScraper.looksBlocked(200, "<html><title>Login • Instagram</title></html>"));
+        assertTrue(HttpInstagramScraper.looksBlocked(200, "<p>Please wait a few minutes before you try again.</p>"));
+        assertFalse(HttpInstagramScraper.looksBlocked(200, "<html><a href=\"/p/AbCdE12345/\">post</a></html>"));
+        assertFalse(HttpInstagramScraper.looksBlocked(404, null));
+    }
+
+    @Test
+    public void testBrowserRunWithoutNewPostsStillBecomesPreferred() {
+        Profile profile = Profile.builder().id(UUID.randomUUID()).username("bloqueado").build();
+        int[] httpRuns = {0};
+        EmptyBrowserScraper browser = new EmptyBrowserScraper();
+        List<ScrapeTier> updates = new ArrayList<>();
+        TieredScrapingStrategy strategy = strategy(blockedHttp(httpRuns), browser, updates);
+
+        // HTTP bloqueado, browser sem posts novos (perfil em dia): o browser funcionou e vira a preferência
+        assertEquals(List.of(), strategy.scrapeAndSaveProfile(profile));
+        assertEquals(ScrapeTier.BROWSER, profile.getPreferredTier());
+        assertEquals(List.of(ScrapeTier.BROWSER), updates);
+
+        // Próxima coleta vai direto ao browser, sem pagar a tentativa HTTP
+        strategy.scrapeAndSaveProfile(profile);
+        assertEquals(1, httpRuns[0]);
+        assertEquals(2, browser.runs);
+        assertEquals(List.of(ScrapeTier.BROWSER), updates);
+    }
+
+    @Test
+    public void testFailedBrowserRunIsNotRemembered() {
+        Profile profile = Profile.builder().id(UUID.randomUUID()).username("bloqueado_no_chrome").build();
+        int[] httpRuns = {0};
+        EmptyBrowserScraper browser = new EmptyBrowserScraper();
+        browser.fail = true;
+        List<ScrapeTier> updates = new ArrayList<>();
+        TieredScrapingStrategy strategy = strategy(blockedHttp(httpRuns), browser, updates);
+
+        // HTTP bloqueado e Chrome também falhou: nada de prender o perfil ao browser por 24 h
+        assertThrows(IllegalStateException.class, () -> strategy.scrapeAndSaveProfile(profile));
+        assertNull(profile.getPreferredTier());
+        assertEquals(List.of(), updates);
+
+        // Próxima coleta volta a começar pelo HTTP
+        assertThrows(IllegalStateException.class, () -> strategy.scrapeAndSaveProfile(profile));
+        assertEquals(2, httpRuns[0]);
+    }
+
+    private static TieredScrapingStrategy strategy(HttpInstagramScraper http, ProfileScraper browser,
+                                                   List<ScrapeTier> updates) {
+        ScraperMetrics metrics = new ScraperMetrics(new HttpFetcher(Duration.ofSeconds(5), Duration.ofSeconds(5),
+                Duration.ofSeconds(5), 2, "test-agent", "pt-BR"));
+        ProfileScraperRegistry registry = new ProfileScraperRegistry(List.of(browser), metrics, 0.1, 0.3, 5, 10);
+        return new TieredScrapingStrategy(http, registry, metrics, recording(updates));
+    }
+
+    private static HttpInstagramScraper blockedHttp(int[] runs) {
+        return new HttpInstagramScraper(null, null, null, null, null) {
+            @Override
+            public Result scrapeAndSave(Profile p) {
+                runs[0]++;
+                return result(Outcome.BLOCKED, 429, 0);
+            }
+
+            @Override
+            public void invalidate(Profile p) {
+            }
+        };
+    }
+
+    // Só updatePreferredTier é usado pela estratégia
+    private static ProfileRepository recording(List<ScrapeTier> updates) {
+        return (ProfileRepository) Proxy.newProxyInstance(ProfileRepository.class.getClassLoader(),
+                new Class<?>[] {ProfileRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("updatePreferredTier")) {
+                        updates.add((ScrapeTier) args[1]);
+                        return 1;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static class EmptyBrowserScraper implements ProfileScraper {
+        int runs;
+        boolean fail;
+
+        @Override
+        public String type() {
+            return "enhanced";
+        }
+
+        @Override
+        public ScrapeTier tier() {
+            return ScrapeTier.BROWSER;
+        }
+
+        @Override
+        public List<Content> scrapeAndSaveProfile(Profile profile) {
+            runs++;
+            if (fail) {
+                throw new IllegalStateException("Todas as tentativas falharam para @" + profile.getUsername());
+            }
+            return new ArrayList<>();
+        }
+    }
+
+    private static HttpInstagramScraper.Result result(HttpInstagramScraper.Outcome outcome, int status, int postsFound) {
+        return new HttpInstagramScraper.Result(outcome, status, postsFound, List.of());
+    }
+}